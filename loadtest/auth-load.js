@@ -0,0 +1,69 @@
+// k6 load test comparing platform-thread and virtual-thread request handling.
+//
+// Run the service once per mode against the same database, then run this script against each:
+//   SPRING_PROFILES_ACTIVE=loadtest SPRING_THREADS_VIRTUAL_ENABLED=false ./mvnw spring-boot:run
+//   SPRING_PROFILES_ACTIVE=loadtest SPRING_THREADS_VIRTUAL_ENABLED=true  ./mvnw spring-boot:run
+//   k6 run -e BASE_URL=http://localhost:9090 -e USERNAME=loadtest -e PASSWORD=secret loadtest/auth-load.js
+//
+// The loadtest profile sets rate-limit.enabled=false (equivalently RATE_LIMIT_ENABLED=false): every login comes
+// from one user and one IP, far above the per-username and per-IP limits. The run aborts on the first throttled login.
+//
+// Compare http_req_duration percentiles and http_reqs throughput from the k6 summary, together with
+// jvm.threads.live, hikaricp.connections.pending and, in virtual mode, jvm.threads.virtual.pinned from
+// /actuator/prometheus. /token is bound by the BCrypt pool in both modes; /validate shows the request
+// thread overhead.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:9090';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+const throttledLogins = new Counter('throttled_logins');
+
+export const options = {
+    thresholds: {
+        // A 429 means the service runs with the rate limiter on and the results would measure the limiter.
+        throttled_logins: [{ threshold: 'count==0', abortOnFail: true }],
+    },
+    scenarios: {
+        login: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: Number(__ENV.LOGIN_RATE || 50),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 100,
+            maxVUs: 1000,
+        },
+        validate: {
+            executor: 'constant-arrival-rate',
+            exec: 'validate',
+            rate: Number(__ENV.VALIDATE_RATE || 2000),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '2m',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/v1/auth/token`, credentials(), JSON_HEADERS);
+    check(response, { 'setup login succeeded': r => r.status === 200 });
+    return { accessToken: response.json('accessToken') };
+}
+
+export function login() {
+    const response = http.post(`${BASE_URL}/api/v1/auth/token`, credentials(), JSON_HEADERS);
+    throttledLogins.add(response.status === 429 ? 1 : 0);
+    check(response, { 'token issued': r => r.status === 200 });
+}
+
+export function validate(data) {
+    const response = http.post(`${BASE_URL}/api/v1/auth/validate`, JSON.stringify({ token: data.accessToken }), JSON_HEADERS);
+    check(response, { 'token valid': r => r.status === 200 });
+}
+
+function credentials() {
+    return JSON.stringify({ username: __ENV.USERNAME, password: __ENV.PASSWORD });
+}
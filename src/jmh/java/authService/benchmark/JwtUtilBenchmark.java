@@ -0,0 +1,55 @@
+package authService.benchmark;
+
+import authService.security.JwtAlgorithm;
+import authService.security.JwtUtil;
+import authService.security.SecurityUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link JwtUtil} calls behind {@code /token} and {@code /validate}, with the default RS256 key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private SecurityUser user;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = BenchmarkKeys.jwtUtil(BenchmarkKeys.keyProvider(JwtAlgorithm.RS256));
+        user = BenchmarkKeys.user();
+        token = jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() throws Exception {
+        return jwtUtil.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() throws Exception {
+        return jwtUtil.getUsernameFromToken(token);
+    }
+}
@@ -0,0 +1,53 @@
+package authService.benchmark;
+
+import authService.security.JwtAlgorithm;
+import authService.security.PemKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning PEM key material into JCA keys, i.e. what every token used to pay before the key ring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyParsingBenchmark {
+
+    private String privateKeyPem;
+    private String publicKeyPem;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = BenchmarkKeys.generateKeyPair(JwtAlgorithm.RS256);
+        MockEnvironment environment = BenchmarkKeys.environment(JwtAlgorithm.RS256, keyPair);
+        privateKeyPem = environment.getProperty("jwt.private-key");
+        publicKeyPem = environment.getProperty("jwt.public-key");
+    }
+
+    @Benchmark
+    public PrivateKey parsePrivateKey() throws Exception {
+        return PemKeys.parsePrivateKey(privateKeyPem, "RSA");
+    }
+
+    @Benchmark
+    public PublicKey parsePublicKey() throws Exception {
+        return PemKeys.parsePublicKey(publicKeyPem, "RSA");
+    }
+}
@@ -0,0 +1,54 @@
+package authService.benchmark;
+
+import authService.dto.AuthResponse;
+import authService.dto.TokenValidationResponse;
+import authService.security.JwtAlgorithm;
+import authService.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies returned by {@code /token} and {@code /validate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AuthResponse authResponse;
+    private TokenValidationResponse tokenValidationResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        JwtUtil jwtUtil = BenchmarkKeys.jwtUtil(BenchmarkKeys.keyProvider(JwtAlgorithm.RS256));
+        authResponse = new AuthResponse(jwtUtil.generateAccessToken(BenchmarkKeys.user()), UUID.randomUUID().toString(), 900_000L, 86_400_000L);
+        tokenValidationResponse = new TokenValidationResponse(true, "benchmark-user", "Token is valid");
+    }
+
+    @Benchmark
+    public byte[] authResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+
+    @Benchmark
+    public byte[] tokenValidationResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(tokenValidationResponse);
+    }
+}
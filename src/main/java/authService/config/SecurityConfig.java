@@ -1,6 +1,13 @@
 package authService.config;
 
+import authService.security.BoundedPasswordEncoder;
+import authService.security.LoginRateLimitFilter;
+import authService.security.LoginRateLimiter;
+import authService.security.PasswordEncoders;
 import authService.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,33 +17,55 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, LoginRateLimiter loginRateLimiter, ObjectMapper objectMapper,
+                                           @Value("${rate-limit.max-body-size:16384}") int maxBodySize) throws Exception {
         http
                 .authorizeHttpRequests(authorizationManagerRequestMatcherRegistry -> authorizationManagerRequestMatcherRegistry
                         .anyRequest().not().authenticated())
-                .csrf(AbstractHttpConfigurer::disable);
+                .csrf(AbstractHttpConfigurer::disable)
+                // Not a bean, so it is not also registered with the servlet container.
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, objectMapper, maxBodySize), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.algorithm:bcrypt}") String algorithm,
+                                           @Value("${password-hashing.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${password-hashing.bcrypt.calibrate:false}") boolean calibrateBcryptStrength,
+                                           @Value("${password-hashing.bcrypt.min-strength:10}") int minBcryptStrength,
+                                           @Value("${password-hashing.bcrypt.max-strength:14}") int maxBcryptStrength,
+                                           @Value("${password-hashing.target-latency:250}") long targetLatencyMs,
+                                           @Value("${password-hashing.pool-size:0}") int poolSize,
+                                           @Value("${password-hashing.queue-capacity:100}") int queueCapacity,
+                                           @Value("${password-hashing.timeout:2000}") long timeoutMs,
+                                           MeterRegistry meterRegistry) {
+        int strength = calibrateBcryptStrength
+                ? PasswordEncoders.calibrateBCryptStrength(Duration.ofMillis(targetLatencyMs), minBcryptStrength, maxBcryptStrength)
+                : bcryptStrength;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(PasswordEncoders.create(algorithm, strength), threads, queueCapacity, timeoutMs, meterRegistry);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(UserService userService) {
+    public AuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder,
+                                                         @Value("${password-hashing.rehash-on-login:true}") boolean rehashOnLogin) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        if (rehashOnLogin) {
+            authProvider.setUserDetailsPasswordService(userService);
+        }
         return authProvider;
     }
 
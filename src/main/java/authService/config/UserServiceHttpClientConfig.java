@@ -0,0 +1,89 @@
+package authService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Outbound transport for calls to user-service. By default a pooled Apache HttpClient keeps connections alive
+ * per route, with bounded connect, lease and response timeouts and pool gauges under {@code httpcomponents.httpclient.pool.*}.
+ * With {@code user-service.http.version=HTTP_2} the JDK client is used instead; it multiplexes requests over a
+ * single connection, so there is no pool to size or measure.
+ */
+@Configuration
+public class UserServiceHttpClientConfig {
+
+    private static final String USER_SERVICE_POOL = "user-service";
+
+    @Bean
+    public ClientHttpRequestFactory userServiceRequestFactory(@Value("${user-service.http.version:HTTP_1_1}") HttpClient.Version version,
+                                                              @Value("${user-service.http.max-connections:50}") int maxConnections,
+                                                              @Value("${user-service.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+                                                              @Value("${user-service.http.connect-timeout:1000}") long connectTimeoutMs,
+                                                              @Value("${user-service.http.connection-request-timeout:500}") long connectionRequestTimeoutMs,
+                                                              @Value("${user-service.http.read-timeout:3000}") long readTimeoutMs,
+                                                              @Value("${user-service.http.keep-alive:30000}") long keepAliveMs,
+                                                              @Value("${user-service.http.connection-ttl:300000}") long connectionTtlMs,
+                                                              MeterRegistry meterRegistry) {
+        if (version == HttpClient.Version.HTTP_2) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+            return requestFactory;
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                        // Revalidate connections that sat idle long enough for the peer to have dropped them.
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, USER_SERVICE_POOL).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    // Honour a shorter Keep-Alive timeout advertised by user-service, otherwise cap at keep-alive.
+                    TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.ofMilliseconds(Math.min(advertised.toMilliseconds(), keepAliveMs));
+                })
+                // Retries are owned by Resilience4j and the registration outbox.
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAliveMs))
+                .build();
+        // Closed with the context: HttpComponentsClientHttpRequestFactory is a DisposableBean.
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
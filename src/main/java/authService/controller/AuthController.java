@@ -13,11 +13,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
@@ -34,19 +41,28 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Void> registerUser(@Valid @RequestBody UserRegistrationRequestDto registrationRequest) throws Exception {
+    public ResponseEntity<RegistrationStatusResponse> registerUser(@Valid @RequestBody UserRegistrationRequestDto registrationRequest) throws Exception {
         logger.info("POST request to /register endpoint received");
-        userService.createUser(registrationRequest, RoleType.ROLE_USER);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        RegistrationStatusResponse registration = userService.createUser(registrationRequest, RoleType.ROLE_USER);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/auth/registrations/" + registration.registrationId()))
+                .body(registration);
+    }
+
+    @GetMapping("/registrations/{registrationId}")
+    public ResponseEntity<RegistrationStatusResponse> getRegistrationStatus(@PathVariable UUID registrationId) {
+        logger.info("GET request to /registrations endpoint received");
+        return ResponseEntity.ok(userService.getRegistrationStatus(registrationId));
     }
 
 
     @PostMapping("/token")
     public ResponseEntity<AuthResponse> createAuthenticationToken(@Valid @RequestBody AuthRequest authRequest) throws Exception {
         logger.info("POST request to /token endpoint received");
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(authRequest.username(), authRequest.password()));
-        SecurityUser securityUser = userService.loadUserByUsername(authRequest.username());
+        Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(authRequest.username(), authRequest.password()));
+        SecurityUser securityUser = (SecurityUser) authentication.getPrincipal();
         AuthResponse authResponse = tokenService.createAuthenticationToken(securityUser);
+        userService.updateLastLogin(securityUser.getId());
         return ResponseEntity.ok(authResponse);
     }
 
@@ -56,10 +72,33 @@ public class AuthController {
         return ResponseEntity.ok(tokenService.validateAuthenticationToken(tokenValidationRequest.token()));
     }
 
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<TokenValidationResponse>> validateTokens(@RequestBody List<TokenValidationRequest> tokenValidationRequests) {
+        logger.info("POST request to /validate/batch endpoint received");
+        List<String> tokens = tokenValidationRequests.stream()
+                .map(request -> request == null ? null : request.token())
+                .toList();
+        return ResponseEntity.ok(tokenService.validateAuthenticationTokens(tokens));
+    }
+
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestBody TokenRevocationRequest tokenRevocationRequest) {
+        logger.info("POST request to /revoke endpoint received");
+        tokenService.revokeAccessToken(tokenRevocationRequest.token());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) throws Exception {
         logger.info("POST request to /refresh endpoint received");
         return ResponseEntity.ok(tokenService.createNewAuthTokenWithRefreshToken(refreshTokenRequest.refreshToken()));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        logger.info("POST request to /logout endpoint received");
+        tokenService.revokeRefreshToken(refreshTokenRequest.refreshToken());
+        return ResponseEntity.ok().build();
+    }
+
 }
@@ -0,0 +1,40 @@
+package authService.controller;
+
+import authService.security.JwkSetProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+@RestController
+public class JwksController {
+
+    private final JwkSetProvider jwkSetProvider;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwkSetProvider jwkSetProvider, @Value("${jwt.jwks.max-age:300}") long maxAgeSeconds) {
+        this.jwkSetProvider = jwkSetProvider;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwks(WebRequest webRequest) {
+        JwkSetProvider.JwkSet jwkSet = jwkSetProvider.getJwkSet();
+        if (webRequest.checkNotModified(jwkSet.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwkSet.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(jwkSet.etag())
+                .cacheControl(cacheControl)
+                .body(jwkSet.body());
+    }
+}
@@ -0,0 +1,11 @@
+package authService.dto;
+
+import authService.entity.RegistrationStatus;
+
+import java.util.UUID;
+
+public record RegistrationStatusResponse(
+        UUID registrationId,
+        RegistrationStatus status
+) {
+}
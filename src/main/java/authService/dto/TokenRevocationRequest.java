@@ -0,0 +1,4 @@
+package authService.dto;
+
+public record TokenRevocationRequest(String token) {
+}
@@ -8,6 +8,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens")
@@ -20,8 +21,9 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 of the token handed to the client; the token itself is never stored. Unique together with expiryDate.
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -30,13 +32,25 @@ public class RefreshToken {
     @Column(name = "expiry_date", nullable = false)
     private LocalDateTime expiryDate;
 
+    // All tokens rotated from the same login share a family, so a replayed token can revoke them together.
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(nullable = false)
+    private boolean revoked = false;
+
     @CreatedDate
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    public RefreshToken(String token, User user, LocalDateTime expiryDate) {
-        this.token = token;
+    public RefreshToken(byte[] tokenHash, User user, LocalDateTime expiryDate) {
+        this(tokenHash, user, expiryDate, UUID.randomUUID());
+    }
+
+    public RefreshToken(byte[] tokenHash, User user, LocalDateTime expiryDate, UUID familyId) {
+        this.tokenHash = tokenHash;
         this.user = user;
         this.expiryDate = expiryDate;
+        this.familyId = familyId;
     }
 }
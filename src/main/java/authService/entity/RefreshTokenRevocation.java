@@ -0,0 +1,44 @@
+package authService.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Revocation of stateless refresh tokens, either a single token family ({@code familyId}) or every token
+ * issued to a user before {@code revokedAt} ({@code userId}). Rows are only needed until {@code expiresAt},
+ * after which every affected token has expired anyway.
+ */
+@Entity
+@Table(name = "refresh_token_revocations")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshTokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "family_id")
+    private UUID familyId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RefreshTokenRevocation(UUID familyId, Long userId, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.familyId = familyId;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,85 @@
+package authService.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registration accepted by {@code /register}; its {@code idempotencyKey} is the registration id clients poll.
+ * Once the user has been created locally the row is kept as {@code COMPLETED} for
+ * {@code registration-outbox.completed-retention}; failed registrations are kept. Neither keeps its password hash.
+ */
+@Entity
+@Table(name = "registration_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class RegistrationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sent as the Idempotency-Key header, so a retried call cannot create a second user in user-service.
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private UUID idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RegistrationStatus status;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String email;
+
+    private String password;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RoleType role;
+
+    private String name;
+
+    private String surname;
+
+    @Column(name = "birth_date")
+    private Date birthDate;
+
+    @Column(name = "user_service_id")
+    private Long userServiceId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Only ever set by the database: the column default on insert, then claims and retries relative to CURRENT_TIMESTAMP.
+    @Column(name = "next_attempt_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @CreatedDate
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public RegistrationOutbox(String username, String email, String password, RoleType role, String name, String surname, Date birthDate) {
+        this.idempotencyKey = UUID.randomUUID();
+        this.status = RegistrationStatus.PENDING;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.name = name;
+        this.surname = surname;
+        this.birthDate = birthDate;
+    }
+}
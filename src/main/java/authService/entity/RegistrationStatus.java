@@ -0,0 +1,10 @@
+package authService.entity;
+
+public enum RegistrationStatus {
+    PENDING,
+    COMPENSATING,
+    COMPLETED,
+    FAILED,
+    // Compensation gave up; the user-service user may still exist and needs manual cleanup.
+    COMPENSATION_FAILED
+}
@@ -0,0 +1,35 @@
+package authService.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Access token revoked before its expiry, identified by its {@code jti} claim. The row is only needed until
+ * {@code expiresAt}, when the token stops validating on its own.
+ */
+@Entity
+@Table(name = "revoked_access_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedAccessToken {
+    @Id
+    private UUID jti;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RevokedAccessToken(UUID jti, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,9 +1,12 @@
 package authService.entity;
 
+import authService.security.CredentialsChangeListener;
+import authService.security.PrincipalCacheInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,7 +26,7 @@ import java.util.Set;
 @NoArgsConstructor
 @Getter
 @Setter
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheInvalidator.class, CredentialsChangeListener.class})
 public class User {
 
     @Id
@@ -35,7 +38,7 @@ public class User {
     private String username;
 
     @NotBlank
-    @Size(min = 6, max = 120, message = "Password should contain between 6 and 120 characters")
+    @Size(min = 6, max = 255, message = "Password should contain between 6 and 255 characters")
     private String password;
 
     @Email(message = "Email should be valid")
@@ -65,10 +68,29 @@ public class User {
     )
     private Set<Role> roles = new HashSet<>();
 
+    // Set when the password or the enabled flag changes, so the update can revoke the user's refresh tokens.
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean credentialsChanged;
+
     public User(String username, String password, String email) {
         this.username = username;
         this.password = password;
         this.email = email;
     }
 
+    public void setPassword(String password) {
+        credentialsChanged |= this.password != null && !this.password.equals(password);
+        this.password = password;
+    }
+
+    public void setEnabled(boolean enabled) {
+        credentialsChanged |= this.enabled && !enabled;
+        this.enabled = enabled;
+    }
+
+    public void clearCredentialsChanged() {
+        credentialsChanged = false;
+    }
+
 }
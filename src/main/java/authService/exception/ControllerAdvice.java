@@ -1,6 +1,7 @@
 package authService.exception;
 
 import authService.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -31,6 +32,18 @@ public class ControllerAdvice {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TokenBatchTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleTokenBatchTooLargeException(TokenBatchTooLargeException exception) {
+        return new ResponseEntity<>(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.BAD_REQUEST, null), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({PasswordHashingRejectedException.class, TokenValidationRejectedException.class})
+    public ResponseEntity<ErrorResponse> handleRejectedException(RuntimeException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, null));
+    }
+
     @ExceptionHandler(UserRegistrationException.class)
     public ResponseEntity<ErrorResponse> handleUserRegistrationException(UserRegistrationException exception) {
         return new ResponseEntity<>(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR, null), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -41,12 +54,12 @@ public class ControllerAdvice {
         return new ResponseEntity<>(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.CONFLICT, null), HttpStatus.CONFLICT);
     }
 
-    @ExceptionHandler({RefreshTokenExpiredException.class, RefreshTokenNotFoundException.class})
+    @ExceptionHandler({RefreshTokenExpiredException.class, RefreshTokenNotFoundException.class, RefreshTokenReuseDetectedException.class})
     public ResponseEntity<ErrorResponse> handleERefreshTokenException(RuntimeException exception) {
         return new ResponseEntity<>(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.UNAUTHORIZED, null), HttpStatus.UNAUTHORIZED);
     }
 
-    @ExceptionHandler({RoleNotFoundException.class, UserNotFoundException.class})
+    @ExceptionHandler({RoleNotFoundException.class, UserNotFoundException.class, RegistrationNotFoundException.class})
     public ResponseEntity<ErrorResponse> handleNotFoundException(RuntimeException exception) {
         return new ResponseEntity<>(new ErrorResponse(Instant.now(), exception.getMessage(), HttpStatus.NOT_FOUND, null), HttpStatus.NOT_FOUND);
     }
@@ -0,0 +1,7 @@
+package authService.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException() {
+        super("Too many concurrent authentication requests, please retry later");
+    }
+}
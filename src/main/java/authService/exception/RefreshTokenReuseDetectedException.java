@@ -0,0 +1,7 @@
+package authService.exception;
+
+public class RefreshTokenReuseDetectedException extends RuntimeException {
+    public RefreshTokenReuseDetectedException() {
+        super("Refresh token has already been used, please sign in again");
+    }
+}
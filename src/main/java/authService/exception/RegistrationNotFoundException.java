@@ -0,0 +1,9 @@
+package authService.exception;
+
+import java.util.UUID;
+
+public class RegistrationNotFoundException extends RuntimeException {
+    public RegistrationNotFoundException(UUID registrationId) {
+        super(String.format("Registration with id=%s not found", registrationId));
+    }
+}
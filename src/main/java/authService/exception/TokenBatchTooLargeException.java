@@ -0,0 +1,7 @@
+package authService.exception;
+
+public class TokenBatchTooLargeException extends RuntimeException {
+    public TokenBatchTooLargeException(int size, int maxSize) {
+        super(String.format("Batch of %d tokens exceeds the limit of %d", size, maxSize));
+    }
+}
@@ -0,0 +1,7 @@
+package authService.exception;
+
+public class TokenValidationRejectedException extends RuntimeException {
+    public TokenValidationRejectedException() {
+        super("Too many concurrent token validations, please retry later");
+    }
+}
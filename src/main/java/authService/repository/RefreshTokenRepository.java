@@ -1,29 +1,45 @@
 package authService.repository;
 
 import authService.entity.RefreshToken;
-import authService.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    /**
+     * Looks a token up by the unique key {@code (token_hash, expiry_date)}. The expiry comes from the token
+     * itself, see {@link authService.security.OpaqueRefreshTokens}, and prunes the lookup to one partition.
+     */
+    Optional<RefreshToken> findByTokenHashAndExpiryDate(byte[] tokenHash, LocalDateTime expiryDate);
 
-    Optional<RefreshToken> findByUser(User user);
-
-    @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user")
-    void deleteByUser(User user);
+    /**
+     * Lookup for tokens issued before the expiry was embedded. It cannot be pruned and probes the token_hash
+     * index of every partition; it stops being used once those tokens have expired.
+     */
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
     void deleteByUserId(Long userId);
 
+    /**
+     * Marks the token as used. Returns 0 when it was already revoked, i.e. the token is being replayed or a
+     * concurrent refresh with the same token won the race.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id = :id AND rt.revoked = false")
+    int revokeIfActive(Long id);
+
+    @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < CURRENT_TIMESTAMP")
-    void deleteExpiredTokens();
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(UUID familyId);
 }
@@ -0,0 +1,24 @@
+package authService.repository;
+
+import authService.entity.RefreshTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRevocationRepository extends JpaRepository<RefreshTokenRevocation, Long> {
+
+    @Query("SELECT r FROM RefreshTokenRevocation r WHERE r.expiresAt > CURRENT_TIMESTAMP")
+    List<RefreshTokenRevocation> findActive();
+
+    @Query("SELECT r FROM RefreshTokenRevocation r WHERE r.revokedAt > :since AND r.expiresAt > CURRENT_TIMESTAMP")
+    List<RefreshTokenRevocation> findActiveRevokedAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM RefreshTokenRevocation r WHERE r.expiresAt < CURRENT_TIMESTAMP")
+    int deleteExpired();
+}
@@ -0,0 +1,66 @@
+package authService.repository;
+
+import authService.entity.RegistrationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RegistrationOutboxRepository extends JpaRepository<RegistrationOutbox, Long> {
+
+    Optional<RegistrationOutbox> findByIdempotencyKey(UUID idempotencyKey);
+
+    /**
+     * Claims up to {@code limit} due entries in one statement: their next attempt is pushed out by the lease so
+     * no other instance picks them up while this one is calling user-service. If this instance dies, the
+     * entries become due again when the lease runs out. Rows locked by a concurrent claim are skipped.
+     * <p>
+     * This modifies rows but is deliberately not {@code @Modifying}: that would run it through
+     * {@code executeUpdate}, which cannot return the claimed rows, so the {@code UPDATE ... RETURNING} is run as a
+     * query instead. It always runs in a transaction of its own, so the claim commits, and the lease becomes
+     * visible to other instances, before any user-service call. The returned entities are detached.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+            UPDATE registration_outbox
+            SET attempts = attempts + 1, next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds)
+            WHERE id IN (
+                SELECT id FROM registration_outbox
+                WHERE status IN ('PENDING', 'COMPENSATING') AND next_attempt_at <= CURRENT_TIMESTAMP
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<RegistrationOutbox> claimDue(int limit, long leaseSeconds);
+
+    /**
+     * Records a failed attempt and makes the entry due again after {@code delayMillis}, counted on the database
+     * clock that {@link #claimDue} compares against.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE registration_outbox
+            SET last_error = :lastError, next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => :delayMillis / 1000.0)
+            WHERE id = :id
+            """, nativeQuery = true)
+    int scheduleRetry(Long id, String lastError, long delayMillis);
+
+    @Modifying
+    @Query("UPDATE RegistrationOutbox r SET r.status = authService.entity.RegistrationStatus.COMPLETED, r.password = NULL WHERE r.id = :id")
+    int markCompleted(Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM registration_outbox WHERE status = 'COMPLETED' AND created_at < CURRENT_TIMESTAMP - make_interval(secs => :retentionSeconds)", nativeQuery = true)
+    int deleteCompletedBefore(long retentionSeconds);
+}
@@ -0,0 +1,25 @@
+package authService.repository;
+
+import authService.entity.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, UUID> {
+
+    @Query("SELECT r FROM RevokedAccessToken r WHERE r.expiresAt > CURRENT_TIMESTAMP")
+    List<RevokedAccessToken> findActive();
+
+    @Query("SELECT r FROM RevokedAccessToken r WHERE r.revokedAt > :since AND r.expiresAt > CURRENT_TIMESTAMP")
+    List<RevokedAccessToken> findActiveRevokedAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken r WHERE r.expiresAt < CURRENT_TIMESTAMP")
+    int deleteExpired();
+}
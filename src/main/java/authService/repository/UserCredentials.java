@@ -0,0 +1,17 @@
+package authService.repository;
+
+/**
+ * Read-only projection of the columns needed to authenticate a user and issue tokens. {@code roles} holds the
+ * user's role names joined with commas, or {@code null} when the user has no roles.
+ */
+public interface UserCredentials {
+    Long getId();
+
+    String getUsername();
+
+    String getPassword();
+
+    Boolean getEnabled();
+
+    String getRoles();
+}
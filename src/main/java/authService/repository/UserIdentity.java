@@ -0,0 +1,14 @@
+package authService.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns that identify a user, used to warm in-memory lookups without loading entities.
+ */
+public interface UserIdentity {
+    String getUsername();
+
+    String getEmail();
+
+    LocalDateTime getCreatedAt();
+}
@@ -1,10 +1,20 @@
 package authService.repository;
 
 import authService.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,7 +22,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Query(value = """
+            SELECT u.id AS id, u.username AS username, u.password AS password, COALESCE(u.enabled, TRUE) AS enabled,
+                   string_agg(r.name, ',') AS roles
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            WHERE u.username = :username
+            GROUP BY u.id
+            """, nativeQuery = true)
+    @Transactional(readOnly = true)
+    Optional<UserCredentials> findCredentialsByUsername(String username);
+
+    @Query(value = """
+            SELECT u.id AS id, u.username AS username, u.password AS password, COALESCE(u.enabled, TRUE) AS enabled,
+                   string_agg(r.name, ',') AS roles
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            WHERE u.id = :id
+            GROUP BY u.id
+            """, nativeQuery = true)
+    Optional<UserCredentials> findCredentialsById(Long id);
+
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email, u.createdAt AS createdAt FROM User u")
+    Stream<UserIdentity> streamAllIdentities();
+
+    @Query("SELECT u.username AS username, u.email AS email, u.createdAt AS createdAt FROM User u WHERE u.createdAt > :since")
+    List<UserIdentity> findIdentitiesCreatedAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = CURRENT_TIMESTAMP WHERE u.username = :username")
+    int updatePasswordByUsername(String username, String password);
 }
@@ -0,0 +1,35 @@
+package authService.security;
+
+import authService.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes a {@link UserCredentialsChangedEvent} when a {@link User} whose password
+ * or enabled flag was changed is updated, or when a user is removed, through the persistence context. Bulk JPQL
+ * updates bypass it; the password rehash on login is one and rightly keeps the user's sessions.
+ */
+@Component
+public class CredentialsChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CredentialsChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    public void credentialsChanged(User user) {
+        if (user.isCredentialsChanged()) {
+            user.clearCredentialsChanged();
+            eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId()));
+        }
+    }
+
+    @PostRemove
+    public void removed(User user) {
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId()));
+    }
+}
@@ -0,0 +1,116 @@
+package authService.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serialized JWK Set for the current {@link KeyRing}. The document and its ETag are computed once per
+ * key ring, so serving it is a single volatile read.
+ */
+@Component
+public class JwkSetProvider {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyProvider keyProvider;
+    private final ObjectMapper objectMapper;
+
+    private volatile JwkSet jwkSet;
+
+    public JwkSetProvider(KeyProvider keyProvider, ObjectMapper objectMapper) {
+        this.keyProvider = keyProvider;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() throws JsonProcessingException {
+        jwkSet = build(keyProvider.getKeyRing());
+    }
+
+    public JwkSet getJwkSet() {
+        return jwkSet;
+    }
+
+    @EventListener
+    public void onKeyRingChanged(KeyRingChangedEvent event) throws JsonProcessingException {
+        jwkSet = build(event.keyRing());
+    }
+
+    private JwkSet build(KeyRing keyRing) throws JsonProcessingException {
+        List<Map<String, String>> keys = keyRing.verificationKeys().stream()
+                .sorted(Comparator.comparing(JwtKey::keyId))
+                .map(JwkSetProvider::toJwk)
+                .toList();
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+        return new JwkSet(body, "\"" + BASE64_URL.encodeToString(sha256(body)) + "\"");
+    }
+
+    private static Map<String, String> toJwk(JwtKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        switch (key.algorithm()) {
+            case RS256 -> {
+                RSAPublicKey publicKey = (RSAPublicKey) key.publicKey();
+                jwk.put("kty", "RSA");
+                jwk.put("n", encodeUnsigned(publicKey.getModulus(), 0));
+                jwk.put("e", encodeUnsigned(publicKey.getPublicExponent(), 0));
+            }
+            case ES256 -> {
+                ECPublicKey publicKey = (ECPublicKey) key.publicKey();
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", encodeUnsigned(publicKey.getW().getAffineX(), 32));
+                jwk.put("y", encodeUnsigned(publicKey.getW().getAffineY(), 32));
+            }
+            case ED25519 -> {
+                // The raw 32-byte key is the tail of the fixed-size X.509 encoding.
+                byte[] encoded = key.publicKey().getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", BASE64_URL.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+            }
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getJwsName());
+        jwk.put("kid", key.keyId());
+        return jwk;
+    }
+
+    private static String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record JwkSet(byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,78 @@
+package authService.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+
+/**
+ * Signing algorithms supported for access tokens, together with the JCA key family each one needs.
+ */
+public enum JwtAlgorithm {
+    RS256("RSA", Jwts.SIG.RS256),
+    ES256("EC", Jwts.SIG.ES256),
+    ED25519("Ed25519", Jwts.SIG.EdDSA);
+
+    private static final ECParameterSpec P_256 = namedCurve("secp256r1");
+
+    private final String keyAlgorithm;
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    JwtAlgorithm(String keyAlgorithm, SignatureAlgorithm signatureAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * JWS {@code alg} header value, e.g. {@code RS256} or {@code EdDSA}.
+     */
+    public String getJwsName() {
+        return signatureAlgorithm.getId();
+    }
+
+    public static JwtAlgorithm fromPublicKey(PublicKey publicKey) {
+        if (publicKey instanceof RSAPublicKey) {
+            return RS256;
+        }
+        // ES256 is defined on P-256 only; other 256-bit curves such as secp256k1 are rejected.
+        if (publicKey instanceof ECPublicKey ecPublicKey && isP256(ecPublicKey.getParams())) {
+            return ES256;
+        }
+        if (publicKey instanceof EdECPublicKey edPublicKey && "Ed25519".equals(edPublicKey.getParams().getName())) {
+            return ED25519;
+        }
+        throw new IllegalArgumentException("Unsupported verification key type: " + publicKey.getAlgorithm());
+    }
+
+    private static boolean isP256(ECParameterSpec params) {
+        return params.getCurve().equals(P_256.getCurve())
+                && params.getGenerator().equals(P_256.getGenerator())
+                && params.getOrder().equals(P_256.getOrder())
+                && params.getCofactor() == P_256.getCofactor();
+    }
+
+    private static ECParameterSpec namedCurve(String name) {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(name));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Curve " + name + " is not available", e);
+        }
+    }
+}
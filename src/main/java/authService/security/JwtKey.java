@@ -0,0 +1,18 @@
+package authService.security;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * Parsed key material for a single {@code kid}. Verification-only keys carry no private key.
+ */
+public record JwtKey(
+        String keyId,
+        JwtAlgorithm algorithm,
+        PublicKey publicKey,
+        PrivateKey privateKey
+) {
+    public boolean canSign() {
+        return privateKey != null;
+    }
+}
@@ -1,20 +1,22 @@
 package authService.security;
 
-import authService.entity.Role;
-import authService.entity.User;
-import io.jsonwebtoken.Claims;
+import authService.entity.RoleType;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.security.Key;
 import java.util.Date;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 @Getter
@@ -30,93 +32,107 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpirationMs;
 
+    // Thread-safe and immutable; the key locator reads the current key ring on every parse.
+    private final JwtParser jwtParser;
+
     public JwtUtil(KeyProvider keyProvider) {
         this.keyProvider = keyProvider;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyProvider.getVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
-    public String generateAccessToken(User user) throws Exception {
+    public String generateAccessToken(SecurityUser user) throws Exception {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        JwtKey signingKey = keyProvider.getActiveKey();
         return Jwts.builder()
                 .header()
+                .keyId(signingKey.keyId())
                 .type("JWT")
                 .and()
                 .subject(user.getUsername())
+                .id(UUID.randomUUID().toString())
                 .issuer("myapp/authservice")
-                .claims(Map.of("roles", user.getRoles().stream().map(Role::getAuthority).collect(Collectors.toSet()), "userId", user.getId().toString()))
+                .claims(Map.of("roles", user.getRoleNames(), "userId", user.getId().toString()))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(keyProvider.getPrivateKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
                 .compact();
     }
 
     public String generateServiceAccessToken() throws Exception {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        JwtKey signingKey = keyProvider.getActiveKey();
         return Jwts.builder()
                 .header()
+                .keyId(signingKey.keyId())
                 .type("JWT")
                 .and()
                 .subject("service")
+                .id(UUID.randomUUID().toString())
                 .issuer("myapp/authservice")
-                .claims(Map.of("roles", Set.of("ROLE_INTERNAL_SERVICE"), "userId", "1"))
+                .claims(Map.of("roles", RoleSet.of(RoleType.ROLE_INTERNAL_SERVICE).authorityNames(), "userId", "1"))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(keyProvider.getPrivateKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
                 .compact();
     }
 
     public String generateAdminAccessToken() {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        JwtKey signingKey = keyProvider.getActiveKey();
         return Jwts.builder()
                 .header()
+                .keyId(signingKey.keyId())
                 .type("JWT")
                 .and()
                 .subject("Admin")
+                .id(UUID.randomUUID().toString())
                 .issuer("myapp/authservice")
-                .claims(Map.of("roles", Set.of("ROLE_ADMIN"), "userId", "1"))
+                .claims(Map.of("roles", RoleSet.of(RoleType.ROLE_ADMIN).authorityNames(), "userId", "1"))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(keyProvider.getPrivateKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
                 .compact();
     }
 
-    public String generateRefreshToken() {
-        return UUID.randomUUID().toString();
+    /**
+     * Verifies the signature and expiry of the token and returns its claims in a single pass.
+     *
+     * @throws JwtException             if the token is malformed, expired or not signed by a known key
+     * @throws IllegalArgumentException if the token is null or empty
+     */
+    public TokenClaims parseToken(String token) {
+        return TokenClaims.from(jwtParser.parseSignedClaims(token).getPayload());
     }
 
-    public String getUsernameFromToken(String token) throws Exception {
-        Claims claims = Jwts.parser()
-                .verifyWith(keyProvider.getPublicKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Optional<TokenClaims> verifyToken(String token) {
+        try {
+            return Optional.of(parseToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error(e.getMessage());
+        }
+        return Optional.empty();
+    }
 
-        return claims.getSubject();
+    public String getUsernameFromToken(String token) throws Exception {
+        return parseToken(token).subject();
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(keyProvider.getPublicKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-        }
-        return false;
+        return verifyToken(token).isPresent();
     }
 
     public Date getExpirationDateFromToken(String token) throws Exception {
-        Claims claims = Jwts.parser()
-                .verifyWith(keyProvider.getPublicKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getExpiration();
+        return Date.from(parseToken(token).expiration());
     }
 
 }
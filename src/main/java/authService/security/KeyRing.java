@@ -0,0 +1,32 @@
+package authService.security;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of every key the service knows about: one active signer plus any number of
+ * verification keys. A new ring is built off to the side and swapped in as a whole on reload.
+ */
+public record KeyRing(
+        JwtKey activeKey,
+        Map<String, JwtKey> keys
+) {
+    public KeyRing {
+        if (activeKey == null || !activeKey.canSign()) {
+            throw new IllegalArgumentException("Key ring requires an active key with a private key");
+        }
+        Map<String, JwtKey> allKeys = new LinkedHashMap<>(keys);
+        allKeys.put(activeKey.keyId(), activeKey);
+        keys = Map.copyOf(allKeys);
+    }
+
+    public Optional<JwtKey> findKey(String keyId) {
+        return Optional.ofNullable(keys.get(keyId));
+    }
+
+    public Collection<JwtKey> verificationKeys() {
+        return keys.values();
+    }
+}
@@ -0,0 +1,7 @@
+package authService.security;
+
+/**
+ * Published by {@link KeyProvider} after a reloaded key ring has been swapped in.
+ */
+public record KeyRingChangedEvent(KeyRing keyRing) {
+}
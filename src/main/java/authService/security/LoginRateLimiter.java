@@ -0,0 +1,73 @@
+package authService.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-node rate limits for the credential endpoints, with one token-bucket budget per client IP and one per
+ * username, kept separately for each endpoint. Usernames are compared case-insensitively so case variants
+ * share a budget. Rejections are counted in {@code rate_limit.rejected}, tagged by endpoint and key class.
+ */
+@Component
+public class LoginRateLimiter {
+
+    public enum KeyClass {
+        IP, USERNAME;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Map<KeyClass, TokenBucketLimiter> limiters = new EnumMap<>(KeyClass.class);
+
+    public LoginRateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                            @Value("${rate-limit.ip.capacity:30}") int ipCapacity,
+                            @Value("${rate-limit.ip.period:60000}") long ipPeriodMs,
+                            @Value("${rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${rate-limit.username.period:60000}") long usernamePeriodMs,
+                            @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+        limiters.put(KeyClass.IP, new TokenBucketLimiter(ipCapacity, Duration.ofMillis(ipPeriodMs).toNanos(), maxKeys));
+        limiters.put(KeyClass.USERNAME, new TokenBucketLimiter(usernameCapacity, Duration.ofMillis(usernamePeriodMs).toNanos(), maxKeys));
+        limiters.forEach((keyClass, limiter) -> Gauge.builder("rate_limit.keys", limiter, TokenBucketLimiter::size)
+                .description("Rate limit buckets currently tracked")
+                .tag("key_class", keyClass.tag())
+                .register(meterRegistry));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes one token from the key's bucket for the endpoint.
+     *
+     * @return {@link Duration#ZERO} if the request is admitted, otherwise how long until it would be
+     */
+    public Duration tryAcquire(String endpoint, KeyClass keyClass, String key) {
+        String bucketKey = keyClass == KeyClass.USERNAME ? key.toLowerCase(Locale.ROOT) : key;
+        long waitNanos = limiters.get(keyClass).tryAcquire(endpoint + ':' + bucketKey);
+        if (waitNanos == 0) {
+            return Duration.ZERO;
+        }
+        Counter.builder("rate_limit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("key_class", keyClass.tag())
+                .register(meterRegistry)
+                .increment();
+        return Duration.ofNanos(waitNanos);
+    }
+}
@@ -0,0 +1,47 @@
+package authService.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Stored refresh tokens of the form {@code <random>.<expiry>}, where {@code expiry} is the row's
+ * {@code expiry_date} in whole seconds. {@code refresh_tokens} is partitioned by that column, so carrying it in
+ * the token lets a lookup go to a single partition. The suffix is covered by the token's hash, so a client
+ * that alters it only gets a token that is not found.
+ */
+public final class OpaqueRefreshTokens {
+
+    private OpaqueRefreshTokens() {
+    }
+
+    /**
+     * Expiry to store with a token issued now; truncated to seconds so that it survives the round trip.
+     */
+    public static LocalDateTime expiryDateFromNow(long lifetimeMs) {
+        return LocalDateTime.now().plus(Duration.ofMillis(lifetimeMs)).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public static String issue(LocalDateTime expiryDate) {
+        // The local date-time is encoded as if it were UTC: it only has to map back to the same column value.
+        return UUID.randomUUID() + "." + expiryDate.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the expiry carried by the token, or {@code null} if it has none, as for tokens issued before the
+     * expiry was embedded.
+     */
+    public static LocalDateTime expiryDate(String token) {
+        int separator = token.lastIndexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofEpochSecond(Long.parseLong(token.substring(separator + 1)), 0, ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package authService.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@link DelegatingPasswordEncoder} used for user passwords. New hashes use the configured
+ * algorithm; hashes stored before ids were introduced are verified as plain BCrypt. A hash with another
+ * algorithm, or with a BCrypt cost below the target, reports {@code upgradeEncoding == true}, which makes
+ * {@code DaoAuthenticationProvider} rehash it on the next successful login. Stronger hashes are never
+ * downgraded, so nodes configured with different costs cannot keep rewriting each other's hashes.
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    public static final String ARGON2 = "argon2";
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoders.class);
+    private static final String PBKDF2_ID = "pbkdf2@SpringSecurity_v5_8";
+    private static final String ARGON2_ID = "argon2@SpringSecurity_v5_8";
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private PasswordEncoders() {
+    }
+
+    public static DelegatingPasswordEncoder create(String algorithm, int bcryptStrength) {
+        // The stock encoder only asks for a rehash when the stored cost is below its strength.
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2_ID, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        boolean argon2Available = ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", PasswordEncoders.class.getClassLoader());
+        if (argon2Available) {
+            encoders.put(ARGON2_ID, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+
+        String idForEncode = switch (algorithm) {
+            case BCRYPT -> BCRYPT;
+            case PBKDF2 -> PBKDF2_ID;
+            case ARGON2 -> {
+                if (!argon2Available) {
+                    throw new IllegalStateException("Argon2 password hashing requires BouncyCastle (bcprov) on the classpath");
+                }
+                yield ARGON2_ID;
+            }
+            default -> throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        };
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * Picks the highest BCrypt cost whose hash time on this machine stays within the target latency. Each cost
+     * step doubles the work, so a few hashes at a cheap cost are enough to extrapolate. The result depends on
+     * the hardware and on a cold JVM, so it is only used when calibration is explicitly enabled.
+     */
+    public static int calibrateBCryptStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-password");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        double ratio = (double) targetLatency.toNanos() / Math.max(bestNanos, 1);
+        int strength = CALIBRATION_STRENGTH + (int) Math.floor(Math.log(ratio) / Math.log(2));
+        int calibrated = Math.max(minStrength, Math.min(maxStrength, strength));
+        logger.info("Calibrated BCrypt strength {} for a {} ms budget (cost {} took {} ms)",
+                calibrated, targetLatency.toMillis(), CALIBRATION_STRENGTH, Duration.ofNanos(bestNanos).toMillis());
+        return calibrated;
+    }
+}
@@ -0,0 +1,60 @@
+package authService.security;
+
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * PEM/Base64 decoding for PKCS#8 private keys and X.509 public keys. Only called while building a
+ * {@link KeyRing}, never on the token path.
+ */
+public final class PemKeys {
+
+    private PemKeys() {
+    }
+
+    public static PrivateKey parsePrivateKey(String key, String algorithm) throws Exception {
+        KeyFactory keyFactory = KeyFactory.getInstance(algorithm);
+        return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(key)));
+    }
+
+    public static PublicKey parsePublicKey(String key, String algorithm) throws Exception {
+        KeyFactory keyFactory = KeyFactory.getInstance(algorithm);
+        return keyFactory.generatePublic(new X509EncodedKeySpec(decode(key)));
+    }
+
+    /**
+     * Parses a public key of any supported {@link JwtAlgorithm}, detecting the key family from the encoding.
+     */
+    public static PublicKey parsePublicKey(String key) throws Exception {
+        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decode(key));
+        for (JwtAlgorithm algorithm : JwtAlgorithm.values()) {
+            try {
+                return KeyFactory.getInstance(algorithm.getKeyAlgorithm()).generatePublic(keySpec);
+            } catch (InvalidKeySpecException e) {
+                // not this key family, try the next one
+            }
+        }
+        throw new InvalidKeySpecException("Unsupported public key type");
+    }
+
+    /**
+     * Stable key id derived from the public key, used when none is configured explicitly so that every
+     * instance sharing the same key material advertises the same {@code kid}.
+     */
+    public static String deriveKeyId(PublicKey publicKey) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 16);
+    }
+
+    private static byte[] decode(String key) {
+        String base64 = key.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,71 @@
+package authService.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Per-node, size-bounded cache of {@link SecurityUser} snapshots keyed by username. Local writes that change
+ * the password, roles or enabled flag evict the entry; changes made on other nodes become visible once the
+ * TTL has passed.
+ */
+@Component
+public class PrincipalCache {
+
+    private final boolean enabled;
+    private final Cache<String, SecurityUser> cache;
+
+    public PrincipalCache(@Value("${principal-cache.enabled:true}") boolean enabled,
+                          @Value("${principal-cache.max-size:10000}") long maxSize,
+                          @Value("${principal-cache.ttl:60000}") long ttlMs,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.principal");
+    }
+
+    /**
+     * Returns the cached principal, or runs the loader and caches a found user. Missing users are not cached.
+     * The loader runs outside the cache's compute: it queries the database, and blocking inside the map's
+     * bin lock would pin a virtual thread to its carrier.
+     */
+    public Optional<SecurityUser> get(String username, Function<String, Optional<SecurityUser>> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        SecurityUser cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<SecurityUser> loaded = loader.apply(username);
+        loaded.ifPresent(principal -> cache.asMap().putIfAbsent(username, principal));
+        return loaded;
+    }
+
+    public void put(SecurityUser principal) {
+        if (enabled) {
+            cache.put(principal.getUsername(), principal);
+        }
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,26 @@
+package authService.security;
+
+import authService.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that evicts the cached principal whenever a {@link User} is updated or removed through
+ * the persistence context. Bulk JPQL updates bypass it and must evict explicitly.
+ */
+@Component
+public class PrincipalCacheInvalidator {
+
+    private final PrincipalCache principalCache;
+
+    public PrincipalCacheInvalidator(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.invalidate(user.getUsername());
+    }
+}
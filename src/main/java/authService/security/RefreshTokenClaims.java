@@ -0,0 +1,16 @@
+package authService.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Contents of a verified stateless refresh token.
+ */
+public record RefreshTokenClaims(
+        Long userId,
+        String username,
+        UUID familyId,
+        Instant issuedAt,
+        Instant expiration
+) {
+}
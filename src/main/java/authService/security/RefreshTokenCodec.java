@@ -0,0 +1,81 @@
+package authService.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies self-contained refresh tokens when {@code jwt.refresh-token.mode=stateless}. The token is
+ * an HS256 JWT carrying the user id, username, token family and expiry, MACed with a secret that never leaves
+ * this service, so verifying it needs no database access. Roles are deliberately not included: they are read
+ * from the current principal when the access token is minted.
+ */
+@Component
+public class RefreshTokenCodec {
+
+    public static final String MODE_OPAQUE = "opaque";
+    public static final String MODE_STATELESS = "stateless";
+
+    private static final String TOKEN_USE = "refresh";
+
+    private final boolean stateless;
+    private final SecretKey secretKey;
+    private final JwtParser parser;
+
+    public RefreshTokenCodec(@Value("${jwt.refresh-token.mode:opaque}") String mode,
+                             @Value("${jwt.refresh-token.secret:}") String secret) {
+        this.stateless = switch (mode) {
+            case MODE_OPAQUE -> false;
+            case MODE_STATELESS -> true;
+            default -> throw new IllegalArgumentException("Unsupported refresh token mode: " + mode);
+        };
+        if (stateless && !StringUtils.hasText(secret)) {
+            throw new IllegalStateException("jwt.refresh-token.secret must be set when jwt.refresh-token.mode=stateless");
+        }
+        this.secretKey = stateless ? Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)) : null;
+        this.parser = stateless ? Jwts.parser().verifyWith(secretKey).require("use", TOKEN_USE).build() : null;
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public String issue(SecurityUser user, UUID familyId, Instant expiration) {
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .claim("uid", user.getId())
+                .claim("fid", familyId.toString())
+                .claim("use", TOKEN_USE)
+                .issuedAt(new Date())
+                .expiration(Date.from(expiration))
+                .signWith(secretKey, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    /**
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws JwtException                        if the token is malformed or its MAC does not match
+     * @throws IllegalArgumentException            if the token is null or empty
+     */
+    public RefreshTokenClaims parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return new RefreshTokenClaims(
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                UUID.fromString(claims.get("fid", String.class)),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package authService.security;
+
+import authService.entity.RoleType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable set of roles with its authority names and {@link GrantedAuthority} instances precomputed. Since
+ * {@link RoleType} is a small fixed enum, one instance per combination is built up front and shared, so
+ * principals and tokens never rebuild role collections per request.
+ */
+public final class RoleSet {
+
+    private static final RoleType[] TYPES = RoleType.values();
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[TYPES.length];
+    private static final RoleSet[] BY_MASK = new RoleSet[1 << TYPES.length];
+
+    static {
+        for (RoleType type : TYPES) {
+            AUTHORITIES[type.ordinal()] = new SimpleGrantedAuthority(type.name());
+        }
+        for (int mask = 0; mask < BY_MASK.length; mask++) {
+            BY_MASK[mask] = new RoleSet(mask);
+        }
+    }
+
+    private final Set<RoleType> types;
+    private final Set<String> authorityNames;
+    private final List<GrantedAuthority> authorities;
+
+    private RoleSet(int mask) {
+        EnumSet<RoleType> members = EnumSet.noneOf(RoleType.class);
+        for (RoleType type : TYPES) {
+            if ((mask & bit(type)) != 0) {
+                members.add(type);
+            }
+        }
+        this.types = Collections.unmodifiableSet(members);
+        this.authorityNames = members.stream().map(RoleType::name).collect(Collectors.toUnmodifiableSet());
+        this.authorities = members.stream().map(type -> AUTHORITIES[type.ordinal()]).toList();
+    }
+
+    public static RoleSet of(RoleType... types) {
+        int mask = 0;
+        for (RoleType type : types) {
+            mask |= bit(type);
+        }
+        return BY_MASK[mask];
+    }
+
+    public static RoleSet of(Collection<RoleType> types) {
+        int mask = 0;
+        for (RoleType type : types) {
+            mask |= bit(type);
+        }
+        return BY_MASK[mask];
+    }
+
+    /**
+     * Resolves authority names such as {@code ROLE_USER}; names that are not a {@link RoleType} are ignored.
+     */
+    public static RoleSet fromAuthorityNames(Collection<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            for (RoleType type : TYPES) {
+                if (type.name().equals(name)) {
+                    mask |= bit(type);
+                    break;
+                }
+            }
+        }
+        return BY_MASK[mask];
+    }
+
+    public static GrantedAuthority authority(RoleType type) {
+        return AUTHORITIES[type.ordinal()];
+    }
+
+    public Set<RoleType> types() {
+        return types;
+    }
+
+    public Set<String> authorityNames() {
+        return authorityNames;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return authorities;
+    }
+
+    public boolean contains(RoleType type) {
+        return types.contains(type);
+    }
+
+    @Override
+    public String toString() {
+        return types.toString();
+    }
+
+    private static int bit(RoleType type) {
+        return 1 << type.ordinal();
+    }
+}
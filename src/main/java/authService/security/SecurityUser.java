@@ -1,36 +1,69 @@
 package authService.security;
 
+import authService.entity.Role;
+import authService.entity.RoleType;
 import authService.entity.User;
+import authService.repository.UserCredentials;
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
 
+/**
+ * Immutable snapshot of the fields of a {@link User} needed to authenticate and issue tokens. It holds no
+ * reference to the entity, so it can be cached and shared between threads.
+ */
 @Getter
-@Setter
-public class SecurityUser implements UserDetails {
+public final class SecurityUser implements UserDetails {
 
-    private User user;
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final RoleSet roles;
 
-    public SecurityUser(User user) {
-        this.user = user;
+    public SecurityUser(Long id, String username, String password, boolean enabled, RoleSet roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.roles = roles;
     }
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return user.getRoles().stream().toList();
+    public static SecurityUser from(User user) {
+        EnumSet<RoleType> roleTypes = EnumSet.noneOf(RoleType.class);
+        for (Role role : user.getRoles()) {
+            roleTypes.add(role.getName());
+        }
+        return new SecurityUser(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled(), RoleSet.of(roleTypes));
     }
 
-    @Override
-    public String getPassword() {
-        return user.getPassword();
+    public static SecurityUser from(UserCredentials credentials) {
+        String roles = credentials.getRoles();
+        return new SecurityUser(
+                credentials.getId(),
+                credentials.getUsername(),
+                credentials.getPassword(),
+                !Boolean.FALSE.equals(credentials.getEnabled()),
+                roles == null ? RoleSet.of() : RoleSet.fromAuthorityNames(Arrays.asList(roles.split(",")))
+        );
+    }
+
+    public SecurityUser withPassword(String newPassword) {
+        return new SecurityUser(id, username, newPassword, enabled, roles);
+    }
+
+    public Set<String> getRoleNames() {
+        return roles.authorityNames();
     }
 
     @Override
-    public String getUsername() {
-        return user.getUsername();
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.authorities();
     }
 
     @Override
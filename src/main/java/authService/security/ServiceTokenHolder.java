@@ -0,0 +1,106 @@
+package authService.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the access token this service presents on outbound calls. The token is minted once and renewed in the
+ * background shortly before it expires, so each request only reads a field instead of signing a new JWT.
+ * If renewal keeps failing until the token expires, the next caller mints one synchronously.
+ */
+@Component
+public class ServiceTokenHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceTokenHolder.class);
+
+    private final JwtUtil jwtUtil;
+    private final Duration renewBefore;
+    private final Counter renewalFailures;
+    // A lock rather than synchronized so request threads waiting on a renewal never pin a virtual thread.
+    private final ReentrantLock renewalLock = new ReentrantLock();
+
+    private volatile ServiceToken current;
+
+    public ServiceTokenHolder(JwtUtil jwtUtil,
+                              @Value("${service-token.renew-before:300000}") long renewBeforeMs,
+                              MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.renewBefore = Duration.ofMillis(renewBeforeMs);
+        this.renewalFailures = Counter.builder("service_token.renewal.failures").register(meterRegistry);
+        Gauge.builder("service_token.last_refresh", this, holder -> holder.current == null ? 0 : holder.current.issuedAt().getEpochSecond())
+                .description("Epoch second at which the outbound service token was last minted")
+                .register(meterRegistry);
+        Gauge.builder("service_token.expires_in", this, holder -> holder.current == null ? 0 : Duration.between(Instant.now(), holder.current.expiresAt()).toSeconds())
+                .description("Seconds until the outbound service token expires")
+                .register(meterRegistry);
+    }
+
+    public String getToken() throws Exception {
+        ServiceToken token = current;
+        if (token == null || !token.expiresAt().isAfter(Instant.now())) {
+            token = renew(false);
+        }
+        return token.value();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${service-token.check-interval:30000}", initialDelayString = "${service-token.check-interval:30000}")
+    public void renewIfExpiring() {
+        tryRenew(false);
+    }
+
+    @EventListener
+    public void onKeyRingChanged(KeyRingChangedEvent event) {
+        // Re-sign with the new active key so downstream services stop seeing the retiring one.
+        tryRenew(true);
+    }
+
+    private void tryRenew(boolean force) {
+        try {
+            renew(force);
+        } catch (Exception e) {
+            renewalFailures.increment();
+            logger.error("Failed to renew service token: {}", e.getMessage());
+        }
+    }
+
+    private ServiceToken renew(boolean force) throws Exception {
+        renewalLock.lock();
+        try {
+            ServiceToken token = current;
+            if (!force && token != null && !token.isDueForRenewal(renewBefore)) {
+                return token;
+            }
+            Instant issuedAt = Instant.now();
+            String value = jwtUtil.generateServiceAccessToken();
+            token = new ServiceToken(value, issuedAt, issuedAt.plusMillis(jwtUtil.getJwtExpirationMs()));
+            current = token;
+            logger.debug("Minted service token valid until {}", token.expiresAt());
+            return token;
+        } finally {
+            renewalLock.unlock();
+        }
+    }
+
+    private record ServiceToken(String value, Instant issuedAt, Instant expiresAt) {
+
+        // Never renew earlier than half-way through the lifetime, even when tokens are short-lived.
+        boolean isDueForRenewal(Duration renewBefore) {
+            Duration halfLifetime = Duration.between(issuedAt, expiresAt).dividedBy(2);
+            Duration margin = renewBefore.compareTo(halfLifetime) < 0 ? renewBefore : halfLifetime;
+            return !expiresAt.minus(margin).isAfter(Instant.now());
+        }
+    }
+}
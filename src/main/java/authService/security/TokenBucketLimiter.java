@@ -0,0 +1,72 @@
+package authService.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by string. Each bucket is a single {@link AtomicLong} holding its theoretical
+ * arrival time (GCRA): a request is admitted when the bucket would still hold at least one of {@code capacity}
+ * tokens, which refill evenly over {@code period}. Admission is one CAS, with no lock and no refill timer.
+ * <p>
+ * Every key gets its own bucket, held in a cache bounded to {@code maxKeys}. A bucket untouched for a whole
+ * period has refilled completely and carries no state, so it expires then. A flood of distinct keys evicts the
+ * least valuable buckets instead of growing the cache, which only ever errs towards admitting the evicted keys;
+ * keys never share a bucket, so the flood cannot throttle anyone else.
+ */
+final class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long periodNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBucketLimiter(int capacity, long periodNanos, int maxKeys) {
+        this(capacity, periodNanos, maxKeys, Ticker.systemTicker());
+    }
+
+    TokenBucketLimiter(int capacity, long periodNanos, int maxKeys, Ticker ticker) {
+        this.periodNanos = periodNanos;
+        this.emissionIntervalNanos = periodNanos / capacity;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(periodNanos))
+                .ticker(ticker)
+                // Evict on the calling thread rather than on the common ForkJoinPool.
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until a token becomes available
+     */
+    long tryAcquire(String key) {
+        long now = ticker.read();
+        AtomicLong bucket = buckets.get(key, ignored -> new AtomicLong(now));
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long next = Math.max(theoreticalArrival, now) + emissionIntervalNanos;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
@@ -0,0 +1,30 @@
+package authService.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Typed view over the claims of a verified access token.
+ */
+public record TokenClaims(
+        String tokenId,
+        String subject,
+        String userId,
+        Set<String> roles,
+        Instant expiration
+) {
+    public static TokenClaims from(Claims claims) {
+        Collection<?> roles = claims.get("roles", Collection.class);
+        return new TokenClaims(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                roles == null ? Set.of() : roles.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet()),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package authService.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of verified access tokens keyed by the SHA-256 digest of the token, so repeat
+ * validations of the same token skip signature verification. Entries never outlive the token's {@code exp}
+ * and invalid tokens are never cached.
+ */
+@Component
+public class TokenValidationCache {
+
+    private final boolean enabled;
+    private final Cache<String, TokenClaims> cache;
+
+    public TokenValidationCache(@Value("${jwt.validation-cache.enabled:true}") boolean enabled,
+                                @Value("${jwt.validation-cache.max-size:100000}") long maxSize,
+                                @Value("${jwt.validation-cache.ttl:300000}") long ttlMs,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(Duration.ofMillis(ttlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.validation");
+    }
+
+    /**
+     * Returns the cached claims for the token, or runs the verifier and caches a successful result.
+     */
+    public Optional<TokenClaims> get(String token, Function<String, Optional<TokenClaims>> verifier) {
+        if (!enabled || !StringUtils.hasText(token)) {
+            return verifier.apply(token);
+        }
+        return Optional.ofNullable(cache.get(digest(token), key -> verifier.apply(token).orElse(null)));
+    }
+
+    public void invalidate(String token) {
+        if (StringUtils.hasText(token)) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onKeyRingChanged(KeyRingChangedEvent event) {
+        // A retired verification key must stop validating tokens straight away.
+        invalidateAll();
+    }
+
+    private static String digest(String token) {
+        return Base64.getEncoder().encodeToString(TokenDigest.sha256(token));
+    }
+
+    private record TokenExpiry(Duration ttl) implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            if (claims.expiration() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), claims.expiration());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return Math.min(ttl.toNanos(), untilExpiry.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package authService.security;
+
+/**
+ * Published by {@link CredentialsChangeListener} when a user's password changes, the user is disabled or the
+ * user is removed, so every refresh token issued to the user can be revoked.
+ */
+public record UserCredentialsChangedEvent(Long userId) {
+}
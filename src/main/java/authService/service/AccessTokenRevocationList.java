@@ -0,0 +1,106 @@
+package authService.service;
+
+import authService.entity.RevokedAccessToken;
+import authService.repository.RevokedAccessTokenRepository;
+import authService.security.TokenClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory set of revoked access token ids ({@code jti}) backed by {@code revoked_access_tokens}, so
+ * validation checks revocation with a single hash lookup and no I/O. Each id is kept only until the token's
+ * own expiry. Revocations made elsewhere can take up to {@code jwt.revocation.sync-interval} to apply here.
+ */
+@Slf4j
+@Component
+public class AccessTokenRevocationList extends RevocationList<String, RevokedAccessToken> {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final DatabaseClock databaseClock;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AccessTokenRevocationList(RevokedAccessTokenRepository revokedAccessTokenRepository, DatabaseClock databaseClock, MeterRegistry meterRegistry) {
+        super(databaseClock);
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.databaseClock = databaseClock;
+        meterRegistry.gauge("jwt.revoked.tokens", this, AccessTokenRevocationList::size);
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        return contains(claims.tokenId());
+    }
+
+    /**
+     * Revokes the token until its expiry. Returns {@code false} for tokens without a UUID {@code jti}, which
+     * cannot be revoked individually. Revoking a token twice keeps the first revocation.
+     */
+    @Transactional
+    public boolean revoke(TokenClaims claims) {
+        UUID jti = parseTokenId(claims.tokenId());
+        if (jti == null || claims.expiration() == null) {
+            return false;
+        }
+        if (isRevoked(claims) || revokedAccessTokenRepository.existsById(jti)) {
+            return true;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.expiration(), ZoneId.systemDefault());
+        // persist rather than save: with an assigned id, save would merge and overwrite an existing row.
+        RevokedAccessToken revokedAccessToken = new RevokedAccessToken(jti, databaseClock.now(), expiresAt);
+        entityManager.persist(revokedAccessToken);
+        applyAfterCommit(revokedAccessToken);
+        return true;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:2000}", initialDelayString = "${jwt.revocation.sync-interval:2000}")
+    public void sync() {
+        super.sync();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:3600000}", initialDelayString = "${jwt.revocation.purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedAccessTokenRepository.deleteExpired();
+        if (deleted > 0) {
+            log.info("Purged {} expired access token revocations", deleted);
+        }
+    }
+
+    @Override
+    protected List<RevokedAccessToken> findActive() {
+        return revokedAccessTokenRepository.findActive();
+    }
+
+    @Override
+    protected List<RevokedAccessToken> findActiveRevokedAfter(LocalDateTime since) {
+        return revokedAccessTokenRepository.findActiveRevokedAfter(since);
+    }
+
+    @Override
+    protected void apply(RevokedAccessToken revokedAccessToken) {
+        add(revokedAccessToken.getJti().toString(), revokedAccessToken.getExpiresAt());
+    }
+
+    private static UUID parseTokenId(String tokenId) {
+        if (tokenId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(tokenId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
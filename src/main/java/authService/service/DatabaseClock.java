@@ -0,0 +1,28 @@
+package authService.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reads the current time from the database. Watermarks compared against database timestamps are taken from
+ * here rather than from the JVM, so clock skew between application nodes cannot move them ahead of rows
+ * that are still to come.
+ */
+@Component
+public class DatabaseClock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseClock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@code LOCALTIMESTAMP} of the database session, which the driver opens in the JVM's time zone.
+     */
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+}
@@ -0,0 +1,48 @@
+package authService.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Watermark of an in-memory mirror that is loaded once and then kept up to date by re-reading the rows stamped
+ * after the watermark. The watermark is the database time taken before each read, never a timestamp from the
+ * rows, and every read goes back {@link #OVERLAP} before it so rows committed late by another instance are
+ * not missed. Rows must therefore be stamped with {@link DatabaseClock} time too.
+ */
+public final class IncrementalSync {
+
+    static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private final DatabaseClock databaseClock;
+
+    private volatile LocalDateTime watermark;
+
+    public IncrementalSync(DatabaseClock databaseClock) {
+        this.databaseClock = databaseClock;
+    }
+
+    /**
+     * Runs the full load; syncs then pick up everything stamped since it started.
+     */
+    public void load(Runnable loader) {
+        LocalDateTime startedAt = databaseClock.now();
+        loader.run();
+        watermark = startedAt;
+    }
+
+    /**
+     * Passes the time from which rows have to be re-read to the reader and advances the watermark once it
+     * returns. Does nothing and returns {@code false} until the first load has finished.
+     */
+    public boolean sync(Consumer<LocalDateTime> reader) {
+        LocalDateTime current = watermark;
+        if (current == null) {
+            return false;
+        }
+        LocalDateTime startedAt = databaseClock.now();
+        reader.accept(current.minus(OVERLAP));
+        watermark = startedAt;
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package authService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code users.last_login}. Logins only record the timestamp in memory, keeping the
+ * latest one per user, and a periodic flush writes all pending timestamps with JDBC batch updates. Pending
+ * timestamps are lost if the process dies without a graceful shutdown, which is acceptable for this column.
+ */
+@Slf4j
+@Component
+public class LastLoginRecorder {
+
+    // Never move last_login backwards, e.g. when another instance has already written a newer login.
+    private static final String UPDATE_LAST_LOGIN =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBatchSize;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedCounter;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             @Value("${last-login.max-batch-size:500}") int maxBatchSize,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.flushedCounter = Counter.builder("last_login.flushed").register(meterRegistry);
+        meterRegistry.gaugeMapSize("last_login.pending", List.of(), pending);
+    }
+
+    public void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    @Scheduled(fixedDelayString = "${last-login.flush-interval:1000}", initialDelayString = "${last-login.flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // Ascending ids keep row lock order consistent between concurrently flushing instances.
+            List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(pending.size());
+            pending.forEach((userId, loginTime) -> entries.add(Map.entry(userId, loginTime)));
+            entries.sort(Map.Entry.comparingByKey());
+            for (int from = 0; from < entries.size(); from += maxBatchSize) {
+                writeBatch(entries.subList(from, Math.min(from + maxBatchSize, entries.size())));
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush {} pending last-login timestamps: {}", pending.size(), e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void writeBatch(List<Map.Entry<Long, LocalDateTime>> batch) {
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch, batch.size(), (statement, entry) -> {
+            Timestamp loginTime = Timestamp.valueOf(entry.getValue());
+            statement.setTimestamp(1, loginTime);
+            statement.setLong(2, entry.getKey());
+            statement.setTimestamp(3, loginTime);
+        });
+        // Only drop entries that were not replaced by a newer login while the batch was being written.
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        flushedCounter.increment(batch.size());
+    }
+}
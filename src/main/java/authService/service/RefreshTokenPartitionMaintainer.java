@@ -0,0 +1,75 @@
+package authService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps the daily partitions of {@code refresh_tokens} ahead of time and retires expired data by dropping
+ * whole partitions instead of deleting rows. The work is done by the {@code create_refresh_token_partitions}
+ * and {@code drop_refresh_token_partitions} database functions, which skip the run when another instance is
+ * already maintaining the partitions.
+ * <p>
+ * Partitions are created far enough ahead to cover the longest-lived token issued today, so no token lands in
+ * the default partition; a row there would stop its day's partition from ever being created. Days are counted
+ * from the database's {@code CURRENT_DATE}, like changeset 009, not from the JVM clock.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPartitionMaintainer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long premakeDays;
+    private final int retentionDays;
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+
+    public RefreshTokenPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                           @Value("${refresh-token-partitions.enabled:true}") boolean enabled,
+                                           @Value("${jwt.refresh-expiration}") long refreshExpirationMs,
+                                           @Value("${refresh-token-partitions.premake-margin-days:2}") int premakeMarginDays,
+                                           @Value("${refresh-token-partitions.retention-days:1}") int retentionDays,
+                                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.premakeDays = Math.ceilDiv(refreshExpirationMs, Duration.ofDays(1).toMillis()) + premakeMarginDays;
+        this.retentionDays = retentionDays;
+        this.createdCounter = Counter.builder("refresh_tokens.partitions.created").register(meterRegistry);
+        this.droppedCounter = Counter.builder("refresh_tokens.partitions.dropped").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token-partitions.interval:3600000}", initialDelayString = "${refresh-token-partitions.interval:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer created = jdbcTemplate.queryForObject("SELECT create_refresh_token_partitions(CURRENT_DATE, CURRENT_DATE + ?::integer)", Integer.class,
+                    premakeDays);
+            // A partition only holds tokens that expire within its day, so once the day is over all of them have expired.
+            Integer dropped = jdbcTemplate.queryForObject("SELECT drop_refresh_token_partitions(CURRENT_DATE - ?::integer)", Integer.class,
+                    retentionDays);
+            createdCounter.increment(created == null ? 0 : created);
+            droppedCounter.increment(dropped == null ? 0 : dropped);
+            if ((created != null && created > 0) || (dropped != null && dropped > 0)) {
+                log.info("Maintained refresh token partitions: {} created, {} dropped", created, dropped);
+            }
+        } catch (Exception e) {
+            log.error("Failed to maintain refresh token partitions: {}", e.getMessage());
+        }
+    }
+}
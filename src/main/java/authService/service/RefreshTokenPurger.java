@@ -0,0 +1,161 @@
+package authService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired refresh tokens in small chunks along the {@code expiry_date} index, pausing between chunks
+ * so the purge never holds many row locks or competes with logins for I/O. Only one instance purges at a
+ * time: the run holds a Postgres session-level advisory lock on its connection, and other instances skip
+ * the run when the lock is taken.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurger {
+
+    // Arbitrary application-wide key for pg_try_advisory_lock, shared by every instance.
+    private static final long ADVISORY_LOCK_KEY = 0x7265667265736831L;
+
+    private static final String DELETE_CHUNK = """
+            DELETE FROM refresh_tokens WHERE id IN (
+                SELECT id FROM refresh_tokens WHERE expiry_date < ? ORDER BY expiry_date LIMIT ?
+            )""";
+    private static final String OLDEST_EXPIRED = "SELECT MIN(expiry_date) FROM refresh_tokens WHERE expiry_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxChunksPerRun;
+    private final Counter purgedCounter;
+    private final Timer chunkTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public RefreshTokenPurger(JdbcTemplate jdbcTemplate,
+                              @Value("${refresh-token-purge.enabled:true}") boolean enabled,
+                              @Value("${refresh-token-purge.chunk-size:1000}") int chunkSize,
+                              @Value("${refresh-token-purge.pause:100}") long pauseMs,
+                              @Value("${refresh-token-purge.max-chunks-per-run:1000}") int maxChunksPerRun,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.purgedCounter = Counter.builder("refresh_tokens.purge.rows").register(meterRegistry);
+        this.chunkTimer = Timer.builder("refresh_tokens.purge.chunk.duration").register(meterRegistry);
+        meterRegistry.gauge("refresh_tokens.purge.lag.seconds", lagSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token-purge.interval:300000}", initialDelayString = "${refresh-token-purge.interval:300000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * Runs one purge pass and returns the number of deleted rows, or 0 if another instance holds the lock.
+     */
+    public long purge() {
+        try {
+            Long purged = jdbcTemplate.execute((ConnectionCallback<Long>) this::purgeWithLock);
+            return purged == null ? 0 : purged;
+        } catch (Exception e) {
+            log.error("Failed to purge expired refresh tokens: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private long purgeWithLock(Connection connection) throws SQLException {
+        if (!tryAdvisoryLock(connection)) {
+            log.debug("Skipping refresh token purge, another instance holds the lock");
+            return 0;
+        }
+        try {
+            return purgeChunks(connection);
+        } finally {
+            advisoryUnlock(connection);
+        }
+    }
+
+    private long purgeChunks(Connection connection) throws SQLException {
+        // A fixed cutoff keeps the run finite even while new tokens keep expiring.
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+        long total = 0;
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_CHUNK)) {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                delete.setTimestamp(1, cutoff);
+                delete.setInt(2, chunkSize);
+                long started = System.nanoTime();
+                int deleted = delete.executeUpdate();
+                chunkTimer.record(Duration.ofNanos(System.nanoTime() - started));
+                purgedCounter.increment(deleted);
+                total += deleted;
+                if (deleted < chunkSize) {
+                    break;
+                }
+                if (!pause()) {
+                    break;
+                }
+            }
+        }
+        updateLag(connection, cutoff);
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+        return total;
+    }
+
+    private void updateLag(Connection connection, Timestamp cutoff) throws SQLException {
+        try (PreparedStatement oldest = connection.prepareStatement(OLDEST_EXPIRED)) {
+            oldest.setTimestamp(1, cutoff);
+            try (ResultSet resultSet = oldest.executeQuery()) {
+                Timestamp oldestExpiry = resultSet.next() ? resultSet.getTimestamp(1) : null;
+                lagSeconds.set(oldestExpiry == null ? 0 : Duration.between(oldestExpiry.toLocalDateTime(), LocalDateTime.now()).toSeconds());
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean tryAdvisoryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void advisoryUnlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package authService.service;
+
+import authService.entity.RefreshTokenRevocation;
+import authService.repository.RefreshTokenRevocationRepository;
+import authService.security.RefreshTokenClaims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory mirror of {@code refresh_token_revocations}, so checking a stateless refresh token never touches
+ * the database. Revoked token families are the shared set; cutoffs for whole users are kept next to it.
+ * Revocations made elsewhere can take up to {@code jwt.refresh-token.revocation-sync-interval} to apply here.
+ */
+@Slf4j
+@Component
+public class RefreshTokenRevocationList extends RevocationList<UUID, RefreshTokenRevocation> {
+
+    private final RefreshTokenRevocationRepository revocationRepository;
+    private final DatabaseClock databaseClock;
+    private final Duration clockSkew;
+    private final Map<Long, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+
+    public RefreshTokenRevocationList(RefreshTokenRevocationRepository revocationRepository,
+                                      DatabaseClock databaseClock,
+                                      @Value("${jwt.refresh-token.revocation-clock-skew:1000}") long clockSkewMs) {
+        super(databaseClock);
+        this.revocationRepository = revocationRepository;
+        this.databaseClock = databaseClock;
+        this.clockSkew = Duration.ofMillis(clockSkewMs);
+    }
+
+    public boolean isRevoked(RefreshTokenClaims claims) {
+        if (contains(claims.familyId())) {
+            return true;
+        }
+        UserCutoff cutoff = userCutoffs.get(claims.userId());
+        return cutoff != null && !LocalDateTime.ofInstant(claims.issuedAt(), ZoneId.systemDefault()).isAfter(cutoff.revokedUpTo());
+    }
+
+    @Transactional
+    public void revokeFamily(UUID familyId, LocalDateTime expiresAt) {
+        RefreshTokenRevocation revocation = revocationRepository.save(new RefreshTokenRevocation(familyId, null, databaseClock.now(), expiresAt));
+        applyAfterCommit(revocation);
+    }
+
+    /**
+     * Revokes every refresh token issued to the user up to now, plus the allowed clock skew.
+     */
+    @Transactional
+    public void revokeUser(Long userId, LocalDateTime expiresAt) {
+        RefreshTokenRevocation revocation = revocationRepository.save(new RefreshTokenRevocation(null, userId, databaseClock.now(), expiresAt));
+        applyAfterCommit(revocation);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.revocation-sync-interval:5000}", initialDelayString = "${jwt.refresh-token.revocation-sync-interval:5000}")
+    public void sync() {
+        super.sync();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.revocation-purge-interval:3600000}", initialDelayString = "${jwt.refresh-token.revocation-purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revocationRepository.deleteExpired();
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh token revocations", deleted);
+        }
+    }
+
+    @Override
+    protected List<RefreshTokenRevocation> findActive() {
+        return revocationRepository.findActive();
+    }
+
+    @Override
+    protected List<RefreshTokenRevocation> findActiveRevokedAfter(LocalDateTime since) {
+        return revocationRepository.findActiveRevokedAfter(since);
+    }
+
+    @Override
+    protected void apply(RefreshTokenRevocation revocation) {
+        if (revocation.getFamilyId() != null) {
+            add(revocation.getFamilyId(), revocation.getExpiresAt());
+        }
+        if (revocation.getUserId() != null) {
+            // revokedAt is database time while iat is the issuing node's clock, truncated to whole seconds. Tokens
+            // issued up to clockSkew after the revocation are revoked too, so a node whose clock runs ahead cannot
+            // issue a token that outlives it; a login in that window has to be repeated once it has passed.
+            LocalDateTime revokedUpTo = revocation.getRevokedAt().plus(clockSkew);
+            userCutoffs.merge(revocation.getUserId(), new UserCutoff(revokedUpTo, revocation.getExpiresAt()), UserCutoff::merge);
+        }
+    }
+
+    @Override
+    protected void evictExpired(LocalDateTime now) {
+        super.evictExpired(now);
+        userCutoffs.values().removeIf(cutoff -> cutoff.expiresAt().isBefore(now));
+    }
+
+    private record UserCutoff(LocalDateTime revokedUpTo, LocalDateTime expiresAt) {
+
+        // Keep the latest cutoff, for as long as the longest-lived token it covers.
+        UserCutoff merge(UserCutoff other) {
+            return new UserCutoff(
+                    other.revokedUpTo.isAfter(revokedUpTo) ? other.revokedUpTo : revokedUpTo,
+                    other.expiresAt.isAfter(expiresAt) ? other.expiresAt : expiresAt
+            );
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package authService.service;
+
+import authService.dto.UserServiceUserRegistrationRequestDto;
+import authService.dto.UserServiceUserRegistrationResponseDto;
+import authService.entity.RegistrationOutbox;
+import authService.entity.RegistrationStatus;
+import authService.entity.User;
+import authService.exception.UserRegistrationException;
+import authService.repository.RegistrationOutboxRepository;
+import authService.repository.RoleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drives the registration saga from {@code registration_outbox}. Each run claims a batch of due entries and,
+ * for each one, creates the user in user-service (with the entry's idempotency key) and then inserts the
+ * local user and marks the entry {@code COMPLETED} in one short transaction. No transaction or connection is held during the
+ * HTTP call.
+ * <p>
+ * Transient failures are retried with exponential backoff, counted on the database clock like the claim. A registration rejected by user-service fails
+ * permanently. If the local insert fails after user-service has created the user, or the retries run out while
+ * an earlier call may have created it, the entry switches to {@code COMPENSATING} and the remote user is
+ * deleted, by id when known and otherwise by idempotency key. Compensation gets its own attempt budget; once that
+ * is used up the entry is parked as {@code COMPENSATION_FAILED}, counted under the {@code dead_lettered}
+ * outcome and logged as an error for manual cleanup.
+ */
+@Slf4j
+@Component
+public class RegistrationOutboxDispatcher {
+
+    private final RegistrationOutboxRepository registrationOutboxRepository;
+    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
+    private final UserServiceRestClient userServiceClient;
+    private final UserExistenceFilter userExistenceFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final int maxCompensationAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final long completedRetentionSeconds;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter compensatedCounter;
+    private final Counter deadLetteredCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RegistrationOutboxDispatcher(RegistrationOutboxRepository registrationOutboxRepository,
+                                        RoleRepository roleRepository,
+                                        RoleCatalog roleCatalog,
+                                        UserServiceRestClient userServiceClient,
+                                        UserExistenceFilter userExistenceFilter,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${registration-outbox.batch-size:20}") int batchSize,
+                                        @Value("${registration-outbox.lease:60000}") long leaseMs,
+                                        @Value("${registration-outbox.max-attempts:10}") int maxAttempts,
+                                        @Value("${registration-outbox.max-compensation-attempts:20}") int maxCompensationAttempts,
+                                        @Value("${registration-outbox.initial-backoff:1000}") long initialBackoffMs,
+                                        @Value("${registration-outbox.max-backoff:300000}") long maxBackoffMs,
+                                        @Value("${registration-outbox.completed-retention:86400000}") long completedRetentionMs,
+                                        MeterRegistry meterRegistry) {
+        this.registrationOutboxRepository = registrationOutboxRepository;
+        this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
+        this.userServiceClient = userServiceClient;
+        this.userExistenceFilter = userExistenceFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseSeconds = Duration.ofMillis(leaseMs).toSeconds();
+        this.maxAttempts = maxAttempts;
+        this.maxCompensationAttempts = maxCompensationAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.completedRetentionSeconds = Duration.ofMillis(completedRetentionMs).toSeconds();
+        this.completedCounter = Counter.builder("registration.outbox").tag("outcome", "completed").register(meterRegistry);
+        this.failedCounter = Counter.builder("registration.outbox").tag("outcome", "failed").register(meterRegistry);
+        this.compensatedCounter = Counter.builder("registration.outbox").tag("outcome", "compensated").register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("registration.outbox").tag("outcome", "dead_lettered").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${registration-outbox.poll-interval:1000}")
+    public void dispatch() {
+        List<RegistrationOutbox> batch;
+        try {
+            batch = registrationOutboxRepository.claimDue(batchSize, leaseSeconds);
+        } catch (Exception e) {
+            log.error("Failed to claim registration outbox entries: {}", e.getMessage());
+            return;
+        }
+        for (RegistrationOutbox registration : batch) {
+            try {
+                if (registration.getStatus() == RegistrationStatus.COMPENSATING) {
+                    compensate(registration);
+                } else {
+                    register(registration);
+                }
+            } catch (Exception e) {
+                log.error("Unexpected failure processing registration {}: {}", registration.getIdempotencyKey(), e.getMessage());
+                recordUnexpectedFailure(registration, "Unexpected failure: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes completed entries once clients have had {@code registration-outbox.completed-retention} to poll them.
+     */
+    @Scheduled(fixedDelayString = "${registration-outbox.purge-interval:3600000}", initialDelayString = "${registration-outbox.purge-interval:3600000}")
+    public void purgeCompleted() {
+        try {
+            int deleted = registrationOutboxRepository.deleteCompletedBefore(completedRetentionSeconds);
+            if (deleted > 0) {
+                log.info("Purged {} completed registration outbox entries", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Failed to purge completed registration outbox entries: {}", e.getMessage());
+        }
+    }
+
+    private void register(RegistrationOutbox registration) {
+        UserServiceUserRegistrationResponseDto response;
+        try {
+            response = userServiceClient.registerUserInUserService(new UserServiceUserRegistrationRequestDto(
+                    registration.getName(),
+                    registration.getSurname(),
+                    registration.getBirthDate(),
+                    registration.getEmail()
+            ), registration.getIdempotencyKey());
+        } catch (UserRegistrationException e) {
+            fail(registration, "Rejected by user-service");
+            return;
+        } catch (Exception e) {
+            retryLater(registration, e.getMessage());
+            return;
+        }
+        if (response == null || response.getId() == null) {
+            retryLater(registration, "user-service returned no user id");
+            return;
+        }
+        // Kept on the entry so compensation in this run can delete the remote user by id.
+        registration.setUserServiceId(response.getId());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = new User(registration.getUsername(), registration.getPassword(), registration.getEmail());
+                user.setId(response.getId());
+                user.getRoles().add(roleRepository.getReferenceById(roleCatalog.getRole(registration.getRole()).getId()));
+                // persist, not merge: an existing row with this id must fail the insert instead of being overwritten.
+                entityManager.persist(user);
+                registrationOutboxRepository.markCompleted(registration.getId());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Local insert of registration {} failed, compensating user-service user {}", registration.getIdempotencyKey(), response.getId());
+            startCompensation(registration, "Local insert failed: " + e.getMostSpecificCause().getMessage());
+            return;
+        }
+        userExistenceFilter.add(registration.getUsername(), registration.getEmail());
+        completedCounter.increment();
+        log.info("Completed registration {} for user {}", registration.getIdempotencyKey(), registration.getUsername());
+    }
+
+    /**
+     * Counts an unexpected failure, e.g. a database error or a missing role, against the entry's attempt budget,
+     * so a poison entry ends up failed or dead-lettered instead of being retried forever on lease expiry.
+     */
+    private void recordUnexpectedFailure(RegistrationOutbox registration, String error) {
+        try {
+            if (registration.getStatus() == RegistrationStatus.COMPENSATING) {
+                compensationFailed(registration, error);
+            } else {
+                retryLater(registration, error);
+            }
+        } catch (Exception e) {
+            // The lease runs out and the next claim counts another attempt, so the budget still applies.
+            log.error("Failed to record failure of registration {}: {}", registration.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private void startCompensation(RegistrationOutbox registration, String error) {
+        registration.setStatus(RegistrationStatus.COMPENSATING);
+        registration.setAttempts(0);
+        registration.setLastError(truncate(error));
+        // The claim's lease still covers the entry, so no other instance compensates it concurrently.
+        registrationOutboxRepository.save(registration);
+        compensate(registration);
+    }
+
+    private void compensate(RegistrationOutbox registration) {
+        try {
+            userServiceClient.compensateUserServiceRegistrationIfFailed(registration.getUserServiceId(), registration.getIdempotencyKey());
+        } catch (Exception e) {
+            compensationFailed(registration, e.getMessage());
+            return;
+        }
+        compensatedCounter.increment();
+        fail(registration, registration.getLastError());
+    }
+
+    private void compensationFailed(RegistrationOutbox registration, String error) {
+        if (registration.getAttempts() >= maxCompensationAttempts) {
+            registration.setStatus(RegistrationStatus.COMPENSATION_FAILED);
+            registration.setPassword(null);
+            registration.setLastError(truncate("Compensation gave up after " + registration.getAttempts() + " attempts: " + error));
+            registrationOutboxRepository.save(registration);
+            deadLetteredCounter.increment();
+            log.error("Registration {} could not be compensated, user-service user {} needs manual cleanup: {}",
+                    registration.getIdempotencyKey(), registration.getUserServiceId(), error);
+            return;
+        }
+        registrationOutboxRepository.scheduleRetry(registration.getId(), truncate("Compensation failed: " + error), backoff(registration.getAttempts()).toMillis());
+    }
+
+    private void retryLater(RegistrationOutbox registration, String error) {
+        if (registration.getAttempts() >= maxAttempts) {
+            // A timed-out call may still have created the user, so delete it by idempotency key before failing.
+            log.warn("Registration {} gave up after {} attempts, compensating: {}", registration.getIdempotencyKey(), registration.getAttempts(), error);
+            startCompensation(registration, "Gave up after " + registration.getAttempts() + " attempts: " + error);
+            return;
+        }
+        Duration backoff = backoff(registration.getAttempts());
+        registrationOutboxRepository.scheduleRetry(registration.getId(), truncate(error), backoff.toMillis());
+        log.warn("Registration {} attempt {} failed, retrying in {} ms: {}", registration.getIdempotencyKey(), registration.getAttempts(), backoff.toMillis(), error);
+    }
+
+    private void fail(RegistrationOutbox registration, String error) {
+        registration.setStatus(RegistrationStatus.FAILED);
+        registration.setPassword(null);
+        registration.setLastError(truncate(error));
+        registrationOutboxRepository.save(registration);
+        failedCounter.increment();
+        log.warn("Registration {} for user {} failed: {}", registration.getIdempotencyKey(), registration.getUsername(), error);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
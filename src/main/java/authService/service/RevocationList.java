@@ -0,0 +1,86 @@
+package authService.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory mirror of a revocation table, so checking a token never touches the database. Keeps each revoked
+ * key until the expiry of the longest-lived token it covers. The mirror is loaded once and then kept up to
+ * date through {@link IncrementalSync}, so revocations made on other instances take up to the subclass's sync
+ * interval to apply here.
+ *
+ * @param <K> key a token is checked against
+ * @param <R> row of the revocation table
+ */
+public abstract class RevocationList<K, R> {
+
+    private final IncrementalSync incrementalSync;
+    private final Map<K, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+    protected RevocationList(DatabaseClock databaseClock) {
+        this.incrementalSync = new IncrementalSync(databaseClock);
+    }
+
+    /**
+     * Runs while the context starts, before the web server accepts requests: a token checked against a list
+     * that is not loaded yet would pass even if it was revoked.
+     */
+    @PostConstruct
+    public void load() {
+        incrementalSync.load(() -> findActive().forEach(this::apply));
+    }
+
+    /**
+     * Picks up revocations made since the last sync and drops expired ones. Subclasses schedule it.
+     */
+    public void sync() {
+        if (incrementalSync.sync(since -> findActiveRevokedAfter(since).forEach(this::apply))) {
+            evictExpired(LocalDateTime.now());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    protected boolean contains(K key) {
+        return key != null && revoked.containsKey(key);
+    }
+
+    protected void add(K key, LocalDateTime expiresAt) {
+        revoked.merge(key, expiresAt, (current, other) -> other.isAfter(current) ? other : current);
+    }
+
+    /**
+     * Applies a revocation written in the current transaction once that commits, so a rollback cannot leave
+     * it applied here while no other instance ever sees it.
+     */
+    protected void applyAfterCommit(R revocation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(revocation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(revocation);
+            }
+        });
+    }
+
+    protected void evictExpired(LocalDateTime now) {
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    protected abstract List<R> findActive();
+
+    protected abstract List<R> findActiveRevokedAfter(LocalDateTime since);
+
+    protected abstract void apply(R revocation);
+}
@@ -0,0 +1,63 @@
+package authService.service;
+
+import authService.entity.Role;
+import authService.entity.RoleType;
+import authService.exception.RoleNotFoundException;
+import authService.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Startup-loaded, read-only view of the {@code roles} table keyed by {@link RoleType}. The table only changes
+ * through migrations, so lookups never hit the database; a periodic refresh picks up new descriptions or roles
+ * without a restart. The returned {@link Role} instances are detached and shared, and must not be modified.
+ */
+@Slf4j
+@Component
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<RoleType, Role> roles = Collections.unmodifiableMap(new EnumMap<>(RoleType.class));
+
+    public RoleCatalog(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${role-catalog.refresh-interval:600000}", initialDelayString = "${role-catalog.refresh-interval:600000}")
+    public void refresh() {
+        try {
+            EnumMap<RoleType, Role> loaded = new EnumMap<>(RoleType.class);
+            for (Role role : roleRepository.findAll()) {
+                loaded.put(role.getName(), role);
+            }
+            roles = Collections.unmodifiableMap(loaded);
+            log.debug("Loaded role catalog: {}", loaded.keySet());
+        } catch (Exception e) {
+            log.error("Failed to refresh role catalog, keeping previous roles {}: {}", roles.keySet(), e.getMessage());
+        }
+    }
+
+    public Role getRole(RoleType roleType) {
+        Role role = roles.get(roleType);
+        if (role == null) {
+            throw new RoleNotFoundException(roleType.toString());
+        }
+        return role;
+    }
+
+    public Map<RoleType, Role> getRoles() {
+        return roles;
+    }
+}
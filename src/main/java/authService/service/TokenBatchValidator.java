@@ -0,0 +1,81 @@
+package authService.service;
+
+import authService.exception.TokenValidationRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs the per-token work of {@code /validate/batch} on a dedicated fixed pool with a bounded queue, so
+ * concurrent batches compete only with each other and not with other users of the common ForkJoinPool.
+ * When the queue is full, or the pool has been shut down, the batch fails with a
+ * {@link TokenValidationRejectedException} instead of queueing without bound, like {@code BoundedPasswordEncoder}.
+ */
+@Component
+public class TokenBatchValidator {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+
+    public TokenBatchValidator(@Value("${jwt.validation-batch.pool-size:0}") int poolSize,
+                               @Value("${jwt.validation-batch.queue-capacity:1000}") int queueCapacity,
+                               MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ValidationThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.rejectedCounter = Counter.builder("jwt.validation.batch.rejected").register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "jwt.validation.batch", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Applies the validator to every token and returns the results in request order.
+     */
+    public <T> List<T> validateAll(List<String> tokens, Function<String, T> validator) {
+        if (tokens.size() <= 1) {
+            return tokens.stream().map(validator).toList();
+        }
+        List<CompletableFuture<T>> results = new ArrayList<>(tokens.size());
+        try {
+            for (String token : tokens) {
+                results.add(CompletableFuture.supplyAsync(() -> validator.apply(token), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            // Tasks of this batch that have not started yet are skipped once cancelled.
+            results.forEach(result -> result.cancel(false));
+            rejectedCounter.increment();
+            throw new TokenValidationRejectedException();
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class ValidationThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "token-validation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
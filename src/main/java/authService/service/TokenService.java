@@ -3,20 +3,41 @@ package authService.service;
 import authService.dto.AuthResponse;
 import authService.dto.TokenValidationResponse;
 import authService.entity.RefreshToken;
-import authService.entity.User;
 import authService.exception.RefreshTokenExpiredException;
 import authService.exception.RefreshTokenNotFoundException;
+import authService.exception.RefreshTokenReuseDetectedException;
+import authService.exception.TokenBatchTooLargeException;
 import authService.exception.UserNotFoundException;
 import authService.repository.RefreshTokenRepository;
 import authService.repository.UserRepository;
 import authService.security.JwtUtil;
+import authService.security.OpaqueRefreshTokens;
+import authService.security.PrincipalCache;
+import authService.security.RefreshTokenClaims;
+import authService.security.RefreshTokenCodec;
 import authService.security.SecurityUser;
+import authService.security.TokenDigest;
+import authService.security.TokenValidationCache;
+import authService.security.UserCredentialsChangedEvent;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @Transactional
 public class TokenService {
@@ -24,26 +45,70 @@ public class TokenService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final TokenValidationCache tokenValidationCache;
+    private final RefreshTokenCodec refreshTokenCodec;
+    private final RefreshTokenRevocationList refreshTokenRevocationList;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenPurger refreshTokenPurger;
+    private final AccessTokenRevocationList accessTokenRevocationList;
+    private final TokenBatchValidator tokenBatchValidator;
+    private final TransactionTemplate rotation;
+    private final TransactionTemplate reuseRevocation;
+    private final int validationBatchMaxSize;
 
-    public TokenService(RefreshTokenRepository refreshTokenRepository, JwtUtil jwtUtil, UserRepository userRepository) {
+    public TokenService(RefreshTokenRepository refreshTokenRepository, JwtUtil jwtUtil, UserRepository userRepository, TokenValidationCache tokenValidationCache,
+                        RefreshTokenCodec refreshTokenCodec, RefreshTokenRevocationList refreshTokenRevocationList, PrincipalCache principalCache, RefreshTokenPurger refreshTokenPurger,
+                        AccessTokenRevocationList accessTokenRevocationList, TokenBatchValidator tokenBatchValidator, PlatformTransactionManager transactionManager,
+                        @Value("${jwt.validation-batch.max-size:100}") int validationBatchMaxSize) {
         this.refreshTokenRepository = refreshTokenRepository;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.tokenValidationCache = tokenValidationCache;
+        this.refreshTokenCodec = refreshTokenCodec;
+        this.refreshTokenRevocationList = refreshTokenRevocationList;
+        this.principalCache = principalCache;
+        this.refreshTokenPurger = refreshTokenPurger;
+        this.accessTokenRevocationList = accessTokenRevocationList;
+        this.tokenBatchValidator = tokenBatchValidator;
+        this.rotation = new TransactionTemplate(transactionManager);
+        this.reuseRevocation = new TransactionTemplate(transactionManager);
+        this.reuseRevocation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.validationBatchMaxSize = validationBatchMaxSize;
     }
 
-    public TokenValidationResponse validateAuthenticationToken(String token) throws Exception {
-        if (jwtUtil.validateToken(token)) {
-            return new TokenValidationResponse(true, jwtUtil.getUsernameFromToken(token), "Token is valid");
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public TokenValidationResponse validateAuthenticationToken(String token) {
+        return tokenValidationCache.get(token, jwtUtil::verifyToken)
+                .filter(claims -> !accessTokenRevocationList.isRevoked(claims))
+                .map(claims -> new TokenValidationResponse(true, claims.subject(), "Token is valid"))
+                .orElseGet(() -> new TokenValidationResponse(false, null, "Token is not valid"));
+    }
+
+    /**
+     * Validates every token independently and returns the results in request order. Tokens are verified in
+     * parallel on the batch validation pool since each verification is CPU-bound and independent of the others.
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<TokenValidationResponse> validateAuthenticationTokens(List<String> tokens) {
+        if (tokens.size() > validationBatchMaxSize) {
+            throw new TokenBatchTooLargeException(tokens.size(), validationBatchMaxSize);
         }
-        return new TokenValidationResponse(false, null, "Token is not valid");
+        return tokenBatchValidator.validateAll(tokens, this::validateAuthenticationToken);
     }
 
+    // SUPPORTS keeps the stateless mode from opening a transaction (and borrowing a connection) it does not need.
+    @Transactional(Transactional.TxType.SUPPORTS)
     public AuthResponse createAuthenticationToken(SecurityUser securityUser) throws Exception {
 
-        final String accessToken = jwtUtil.generateAccessToken(securityUser.getUser());
-        final String refreshToken = jwtUtil.generateRefreshToken();
+        final String accessToken = jwtUtil.generateAccessToken(securityUser);
+        if (refreshTokenCodec.isStateless()) {
+            String refreshToken = refreshTokenCodec.issue(securityUser, UUID.randomUUID(), Instant.now().plusMillis(jwtUtil.getRefreshExpirationMs()));
+            return new AuthResponse(accessToken, refreshToken, jwtUtil.getJwtExpirationMs(), jwtUtil.getRefreshExpirationMs());
+        }
+        LocalDateTime expiryDate = OpaqueRefreshTokens.expiryDateFromNow(jwtUtil.getRefreshExpirationMs());
+        final String refreshToken = OpaqueRefreshTokens.issue(expiryDate);
 
-        refreshTokenRepository.save(new RefreshToken(refreshToken, securityUser.getUser(), LocalDateTime.now().plusSeconds(jwtUtil.getRefreshExpirationMs() / 1000)));
+        refreshTokenRepository.save(new RefreshToken(TokenDigest.sha256(refreshToken), userRepository.getReferenceById(securityUser.getId()), expiryDate));
 
         return new AuthResponse(
                 accessToken,
@@ -53,53 +118,149 @@ public class TokenService {
         );
     }
 
+    /**
+     * Revokes a valid access token until its expiry. Invalid or expired tokens are ignored, as there is nothing
+     * left to revoke.
+     */
+    public void revokeAccessToken(String token) {
+        jwtUtil.verifyToken(token).ifPresent(claims -> {
+            if (accessTokenRevocationList.revoke(claims)) {
+                tokenValidationCache.invalidate(token);
+                log.info("Revoked access token {} of {}", claims.tokenId(), claims.subject());
+            }
+        });
+    }
+
+    /**
+     * Revokes the family of a valid refresh token, which ends the session it belongs to. Invalid, expired or
+     * unknown tokens are ignored, as there is nothing left to revoke.
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        if (refreshTokenCodec.isStateless()) {
+            RefreshTokenClaims claims;
+            try {
+                claims = refreshTokenCodec.parse(refreshToken);
+            } catch (JwtException | IllegalArgumentException e) {
+                return;
+            }
+            refreshTokenRevocationList.revokeFamily(claims.familyId(), LocalDateTime.ofInstant(claims.expiration(), ZoneId.systemDefault()));
+            log.info("Revoked refresh token family {} of {}", claims.familyId(), claims.username());
+            return;
+        }
+        findRefreshToken(refreshToken).ifPresent(savedRefreshToken -> {
+            refreshTokenRepository.revokeFamily(savedRefreshToken.getFamilyId());
+            log.info("Revoked refresh token family {}", savedRefreshToken.getFamilyId());
+        });
+    }
+
     public String createNewServiceToken() throws Exception {
         return jwtUtil.generateServiceAccessToken();
     }
 
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public AuthResponse createNewAuthTokenWithRefreshToken(String refreshToken) throws Exception {
-        RefreshToken savedRefreshToken = refreshTokenRepository.findByToken(refreshToken).orElseThrow(() -> new RefreshTokenNotFoundException("Refresh token not found"));
-        if (savedRefreshToken.getExpiryDate().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(savedRefreshToken);
-            throw new RefreshTokenExpiredException("Refresh token is expired");
+        if (refreshTokenCodec.isStateless()) {
+            return createNewAuthTokenWithStatelessRefreshToken(refreshToken);
         }
+        return rotateRefreshToken(refreshToken);
+    }
+
+    /**
+     * Exchanges a stored refresh token for a new one in the same family. Each token can be used once: presenting
+     * a token that was already rotated means it leaked, so every token of its family is revoked and the user has
+     * to sign in again. Used tokens stay in the table, revoked, until they expire so any replay is detected.
+     * <p>
+     * Marking the token used, storing its successor and loading the principal happen in one transaction, so a
+     * failed rotation leaves the old token usable. Only the family revocation on reuse commits on its own, since
+     * the request then fails and rolls the rotation back.
+     */
+    private AuthResponse rotateRefreshToken(String refreshToken) throws Exception {
+        LocalDateTime newExpiryDate = OpaqueRefreshTokens.expiryDateFromNow(jwtUtil.getRefreshExpirationMs());
+        final String newRefreshToken = OpaqueRefreshTokens.issue(newExpiryDate);
+        SecurityUser securityUser = rotation.execute(status -> {
+            RefreshToken savedRefreshToken = findRefreshToken(refreshToken).orElseThrow(() -> new RefreshTokenNotFoundException("Refresh token not found"));
+            if (savedRefreshToken.getExpiryDate().isBefore(LocalDateTime.now())) {
+                throw new RefreshTokenExpiredException("Refresh token is expired");
+            }
+            if (savedRefreshToken.isRevoked() || refreshTokenRepository.revokeIfActive(savedRefreshToken.getId()) == 0) {
+                int revoked = reuseRevocation.execute(revocationStatus -> refreshTokenRepository.revokeFamily(savedRefreshToken.getFamilyId()));
+                log.warn("Refresh token reuse detected for family {}, revoked {} active tokens", savedRefreshToken.getFamilyId(), revoked);
+                throw new RefreshTokenReuseDetectedException();
+            }
+            Long userId = savedRefreshToken.getUser().getId();
+            SecurityUser user = userRepository.findCredentialsById(userId)
+                    .map(SecurityUser::from)
+                    .orElseThrow(() -> new UserNotFoundException(userId.toString()));
+            refreshTokenRepository.save(new RefreshToken(TokenDigest.sha256(newRefreshToken), savedRefreshToken.getUser(),
+                    newExpiryDate, savedRefreshToken.getFamilyId()));
+            return user;
+        });
         return new AuthResponse(
-                jwtUtil.generateAccessToken(savedRefreshToken.getUser()),
-                refreshToken,
+                jwtUtil.generateAccessToken(securityUser),
+                newRefreshToken,
                 jwtUtil.getJwtExpirationMs(),
                 jwtUtil.getRefreshExpirationMs()
         );
     }
 
-    public RefreshToken createRefreshToken(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException(username));
-
-        refreshTokenRepository.deleteByUser(user);
-
-        String token = UUID.randomUUID().toString();
-        LocalDateTime expiryDate = LocalDateTime.now().plusSeconds(jwtUtil.getJwtExpirationMs() / 1000);
-
-        RefreshToken refreshToken = new RefreshToken(token, user, expiryDate);
-        return refreshTokenRepository.save(refreshToken);
+    private Optional<RefreshToken> findRefreshToken(String refreshToken) {
+        byte[] tokenHash = TokenDigest.sha256(refreshToken);
+        LocalDateTime expiryDate = OpaqueRefreshTokens.expiryDate(refreshToken);
+        return expiryDate != null
+                ? refreshTokenRepository.findByTokenHashAndExpiryDate(tokenHash, expiryDate)
+                : refreshTokenRepository.findByTokenHash(tokenHash);
     }
 
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(token);
-            throw new RefreshTokenExpiredException("Refresh token was expired. Please make a new signin request");
+    /**
+     * Verifies the token's MAC and expiry and checks it against the in-memory revocation list. The database is
+     * only read when the principal is not cached.
+     */
+    private AuthResponse createNewAuthTokenWithStatelessRefreshToken(String refreshToken) throws Exception {
+        RefreshTokenClaims claims;
+        try {
+            claims = refreshTokenCodec.parse(refreshToken);
+        } catch (ExpiredJwtException e) {
+            throw new RefreshTokenExpiredException("Refresh token is expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RefreshTokenNotFoundException("Refresh token not found");
+        }
+        if (refreshTokenRevocationList.isRevoked(claims)) {
+            throw new RefreshTokenNotFoundException("Refresh token has been revoked");
         }
-        return token;
+        SecurityUser securityUser = principalCache.get(claims.username(), key -> userRepository.findCredentialsByUsername(key).map(SecurityUser::from))
+                .filter(user -> user.getId().equals(claims.userId()) && user.isEnabled())
+                .orElseThrow(() -> new RefreshTokenNotFoundException("Refresh token not found"));
+        return new AuthResponse(
+                jwtUtil.generateAccessToken(securityUser),
+                refreshToken,
+                jwtUtil.getJwtExpirationMs(),
+                jwtUtil.getRefreshExpirationMs()
+        );
     }
 
-    @Transactional
-    public void deleteByUserId(Long userId) {
-        refreshTokenRepository.deleteByUserId(userId);
+    /**
+     * Ends every session of a user whose password changed or who was disabled or removed. Runs once the change
+     * has committed, in its own transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void revokeUserRefreshTokens(UserCredentialsChangedEvent event) {
+        refreshTokenRepository.deleteByUserId(event.userId());
+        if (refreshTokenCodec.isStateless()) {
+            refreshTokenRevocationList.revokeUser(event.userId(), LocalDateTime.now().plusSeconds(jwtUtil.getRefreshExpirationMs() / 1000));
+        }
+        log.info("Revoked all refresh tokens of user {}", event.userId());
     }
 
-    @Transactional
-    public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens();
+    /**
+     * Purges expired refresh tokens in bounded chunks on the purger's own connection.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public long deleteExpiredTokens() {
+        return refreshTokenPurger.purge();
     }
 }
@@ -0,0 +1,136 @@
+package authService.service;
+
+import authService.repository.UserIdentity;
+import authService.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over all usernames and emails. A negative answer means the value was not in the
+ * {@code users} table as of the last sync, so lookups for it can skip the database. Users inserted by this
+ * instance are added immediately; users inserted elsewhere are picked up by a periodic sync on
+ * {@code created_at}, and a periodic full rebuild drops deleted users.
+ * <p>
+ * The filter is enabled by default. Users created on other instances stay unknown here until the next sync: a
+ * duplicate registration for one of them is still rejected by the unique constraints, but a login fails until
+ * {@code user-filter.sync-interval} has passed. While disabled, and until the first warm-up has finished, every
+ * value is reported as possibly present and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final IncrementalSync incrementalSync;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Filters filters;
+    private volatile Filters pendingFilters;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               DatabaseClock databaseClock,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${user-filter.enabled:true}") boolean enabled,
+                               @Value("${user-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${user-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.incrementalSync = new IncrementalSync(databaseClock);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return current == null || current.usernames().mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return current == null || current.emails().mightContain(email);
+    }
+
+    public void add(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+        Filters pending = pendingFilters;
+        if (pending != null) {
+            pending.add(username, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${user-filter.rebuild-interval:3600000}", initialDelayString = "${user-filter.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            long capacity = Math.max(expectedInsertions, userRepository.count() * 2);
+            Filters rebuilt = new Filters(new BloomFilter(capacity, falsePositiveProbability), new BloomFilter(capacity, falsePositiveProbability));
+            pendingFilters = rebuilt;
+            incrementalSync.load(() -> {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+                        identities.forEach(rebuilt::add);
+                    }
+                });
+                filters = rebuilt;
+            });
+            log.info("Rebuilt user existence filter for {} expected users in {} ms", capacity, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.error("Failed to rebuild user existence filter: {}", e.getMessage());
+        } finally {
+            pendingFilters = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-filter.sync-interval:5000}", initialDelayString = "${user-filter.sync-interval:5000}")
+    public void syncRecentUsers() {
+        Filters current = filters;
+        if (current == null || rebuilding.get()) {
+            return;
+        }
+        incrementalSync.sync(since -> userRepository.findIdentitiesCreatedAfter(since).forEach(current::add));
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.put(username);
+            }
+            if (email != null) {
+                emails.put(email);
+            }
+        }
+
+        void add(UserIdentity identity) {
+            add(identity.getUsername(), identity.getEmail());
+        }
+    }
+}
@@ -1,89 +1,105 @@
 package authService.service;
 
+import authService.dto.RegistrationStatusResponse;
 import authService.dto.UserRegistrationRequestDto;
-import authService.dto.UserServiceUserRegistrationRequestDto;
-import authService.dto.UserServiceUserRegistrationResponseDto;
-import authService.entity.Role;
+import authService.entity.RegistrationOutbox;
 import authService.entity.RoleType;
 import authService.entity.User;
-import authService.exception.RoleNotFoundException;
+import authService.exception.RegistrationNotFoundException;
 import authService.exception.UserAlreadyExistsException;
 import authService.exception.UserNotFoundException;
-import authService.exception.UserRegistrationException;
-import authService.repository.RoleRepository;
+import authService.repository.RegistrationOutboxRepository;
 import authService.repository.UserRepository;
-import authService.security.JwtUtil;
+import authService.security.PrincipalCache;
 import authService.security.SecurityUser;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Slf4j
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final RoleType DEFAULT_USER_ROLE = RoleType.ROLE_USER;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final UserServiceRestClient userServiceClient;
-    private final TokenService tokenService;
-    private final JwtUtil jwtUtil;
+    private final RegistrationOutboxRepository registrationOutboxRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final PrincipalCache principalCache;
+    private final RoleCatalog roleCatalog;
+    private final LastLoginRecorder lastLoginRecorder;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, UserServiceRestClient userServiceClient, TokenService tokenService, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, RegistrationOutboxRepository registrationOutboxRepository, UserExistenceFilter userExistenceFilter, PrincipalCache principalCache, RoleCatalog roleCatalog, LastLoginRecorder lastLoginRecorder) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userServiceClient = userServiceClient;
-        this.tokenService = tokenService;
-        this.jwtUtil = jwtUtil;
+        this.registrationOutboxRepository = registrationOutboxRepository;
+        this.userExistenceFilter = userExistenceFilter;
+        this.principalCache = principalCache;
+        this.roleCatalog = roleCatalog;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
-    public User createUser(UserRegistrationRequestDto userRegistrationRequest, RoleType roleType) throws Exception {
-        if (userRepository.existsByUsername(userRegistrationRequest.username())) {
+    /**
+     * Accepts a registration by writing it to the outbox in one short transaction; the user is created in
+     * user-service and then locally by {@link RegistrationOutboxDispatcher}. No connection is held while the
+     * password is hashed, and the request never waits for user-service. The returned id can be polled with
+     * {@link #getRegistrationStatus(UUID)}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RegistrationStatusResponse createUser(UserRegistrationRequestDto userRegistrationRequest, RoleType roleType) {
+        if (userExistenceFilter.mightContainUsername(userRegistrationRequest.username()) && userRepository.existsByUsername(userRegistrationRequest.username())) {
             throw new UserAlreadyExistsException("User with given username is already taken");
         }
 
-        if (userRepository.existsByEmail(userRegistrationRequest.email())) {
+        if (userExistenceFilter.mightContainEmail(userRegistrationRequest.email()) && userRepository.existsByEmail(userRegistrationRequest.email())) {
             throw new UserAlreadyExistsException("User with given email is already in use");
         }
 
-        Role userRole = roleRepository.findByName(roleType).orElseThrow(() -> new RoleNotFoundException(roleType.toString()));
-        User user = new User(userRegistrationRequest.username(), passwordEncoder.encode(userRegistrationRequest.password()), userRegistrationRequest.email());
-        user.getRoles().add(userRole);
-
-        UserServiceUserRegistrationRequestDto userRegistrationRequestDto = new UserServiceUserRegistrationRequestDto(
+        roleCatalog.getRole(roleType);
+        RegistrationOutbox registration = new RegistrationOutbox(
+                userRegistrationRequest.username(),
+                userRegistrationRequest.email(),
+                passwordEncoder.encode(userRegistrationRequest.password()),
+                roleType,
                 userRegistrationRequest.name(),
                 userRegistrationRequest.surname(),
-                userRegistrationRequest.birthDate(),
-                userRegistrationRequest.email()
+                userRegistrationRequest.birthDate()
         );
-        UserServiceUserRegistrationResponseDto userRegistrationResponseDto = userServiceClient.processUserRegistrationInUserService(userRegistrationRequestDto);
         try {
-            if (userRegistrationResponseDto.getId() != null) {
-                user.setId(userRegistrationResponseDto.getId());
-            }
-            user = userRepository.save(user);
-        } catch (Exception e) {
-            log.error("Compensating userRegistration with userId:{}", userRegistrationResponseDto.getId());
-            userServiceClient.compensateUserServiceRegistrationIfFailed(userRegistrationResponseDto.getId());
-            throw new RuntimeException("Internal error");
+            registrationOutboxRepository.save(registration);
+        } catch (DataIntegrityViolationException e) {
+            // Partial unique indexes allow only one pending registration per username and per email.
+            throw new UserAlreadyExistsException("A registration with given username or email is already in progress");
         }
-        return user;
+        log.info("Accepted registration {} for user {}", registration.getIdempotencyKey(), registration.getUsername());
+        return new RegistrationStatusResponse(registration.getIdempotencyKey(), registration.getStatus());
     }
 
+    @Transactional(readOnly = true)
+    public RegistrationStatusResponse getRegistrationStatus(UUID registrationId) {
+        return registrationOutboxRepository.findByIdempotencyKey(registrationId)
+                .map(registration -> new RegistrationStatusResponse(registration.getIdempotencyKey(), registration.getStatus()))
+                .orElseThrow(() -> new RegistrationNotFoundException(registrationId));
+    }
 
-    public void updateLastLogin(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException(username));
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+
+    /**
+     * Buffers the login time; it reaches {@code users.last_login} with the next batched flush.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void updateLastLogin(Long userId) {
+        lastLoginRecorder.record(userId, LocalDateTime.now());
     }
 
     public boolean validateUserCredentials(User user, String username, String password) {
@@ -91,8 +107,31 @@ public class UserService implements UserDetailsService {
 
     }
 
+    /**
+     * Called by {@code DaoAuthenticationProvider} after a successful login when the stored hash no longer
+     * matches the configured algorithm or cost.
+     */
     @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        log.info("Rehashed password of user {} with current hashing parameters", user.getUsername());
+        SecurityUser updated = ((SecurityUser) user).withPassword(newPassword);
+        principalCache.put(updated);
+        return updated;
+    }
+
+    /**
+     * Loads the principal through a single read-only projection query, so the login path never hydrates or
+     * flushes a managed {@code User} entity. No transaction is opened here: a principal cache hit needs no
+     * connection, and only the query on a miss runs in its own read-only transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SecurityUser loadUserByUsername(String username) throws UsernameNotFoundException {
-        return new SecurityUser(userRepository.findByUsername(username).orElseThrow(() -> new UserNotFoundException(username)));
+        if (!userExistenceFilter.mightContainUsername(username)) {
+            throw new UserNotFoundException(username);
+        }
+        return principalCache.get(username, key -> userRepository.findCredentialsByUsername(key).map(SecurityUser::from))
+                .orElseThrow(() -> new UserNotFoundException(username));
     }
 }
@@ -1,72 +1,98 @@
 package authService.service;
 
-import authService.dto.ErrorResponse;
 import authService.dto.UserServiceUserRegistrationRequestDto;
 import authService.dto.UserServiceUserRegistrationResponseDto;
 import authService.exception.UserRegistrationException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import authService.security.ServiceTokenHolder;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.util.UUID;
+
 @Component
 public class UserServiceRestClient {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final Logger logger = LoggerFactory.getLogger(UserServiceRestClient.class);
-    private final ObjectMapper objectMapper;
-    private final TokenService tokenService;
+    private final ServiceTokenHolder serviceTokenHolder;
     private final String USER_SERVICE_BASE_URL;
     private final RestClient restClient;
 
-    public UserServiceRestClient(@Value("${user-service.base-url}") String userServiceBaseUrl, TokenService tokenService, ObjectMapper objectMapper) {
-        this.tokenService = tokenService;
-        this.objectMapper = objectMapper;
+    public UserServiceRestClient(@Value("${user-service.base-url}") String userServiceBaseUrl,
+                                 ClientHttpRequestFactory userServiceRequestFactory,
+                                 ServiceTokenHolder serviceTokenHolder) {
+        this.serviceTokenHolder = serviceTokenHolder;
         this.USER_SERVICE_BASE_URL = userServiceBaseUrl;
         this.restClient = RestClient.builder()
                 .baseUrl(USER_SERVICE_BASE_URL)
+                .requestFactory(userServiceRequestFactory)
                 .build();
     }
 
-
+    /**
+     * Creates the user in user-service on behalf of the registration outbox. Retries are left to the outbox,
+     * and the idempotency key lets user-service return the already created user when a retry repeats a call
+     * that succeeded but whose response was lost.
+     *
+     * @throws UserRegistrationException if user-service rejects the registration (4xx), which is permanent
+     */
     @CircuitBreaker(name = "userServiceClient")
-    @Retry(name = "userServiceClient")
-    public UserServiceUserRegistrationResponseDto processUserRegistrationInUserService(UserServiceUserRegistrationRequestDto requestDto) throws Exception {
-        UserServiceUserRegistrationResponseDto response = restClient
+    @Bulkhead(name = "userServiceClient")
+    public UserServiceUserRegistrationResponseDto registerUserInUserService(UserServiceUserRegistrationRequestDto requestDto, UUID idempotencyKey) throws Exception {
+        return restClient
                 .post()
                 .uri("/api/v1/users")
-                .header("Authorization", "Bearer " + tokenService.createNewServiceToken())
+                .header("Authorization", "Bearer " + serviceTokenHolder.getToken())
+                .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey.toString())
                 .body(requestDto)
                 .retrieve()
-                .onStatus(httpStatusCode -> !httpStatusCode.is2xxSuccessful(), (request, resp) -> {
-                    logger.info(resp.getStatusCode().toString());
-                    logger.info(resp.getStatusText().toString());
-                    logger.info(objectMapper.writeValueAsString(resp.getBody()));
-                    logger.warn("Failed to craete new user in userService");
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {
+                    logger.warn("userService rejected registration {} with status {}", idempotencyKey, resp.getStatusCode());
                     throw new UserRegistrationException("Failed to create user");
                 })
                 .body(UserServiceUserRegistrationResponseDto.class);
-
-        return response;
     }
 
+    /**
+     * Deletes a user created by a registration that could not be completed locally. When the user-service id is
+     * not known, e.g. because every create call timed out, the user created under the registration's
+     * idempotency key is deleted instead. A user that is already gone or was never created (404 or 410)
+     * counts as compensated, so a repeated compensation does not fail forever.
+     *
+     * @throws UserRegistrationException if user-service answers with any other non-2xx status
+     */
     @CircuitBreaker(name = "userServiceClient")
+    @Bulkhead(name = "userServiceClient")
     @Retry(name = "userServiceClient")
-    public void compensateUserServiceRegistrationIfFailed(Long userId) throws Exception {
-        UserServiceUserRegistrationResponseDto response = restClient
-                .delete()
-                .uri("/api/v1/users/{userId}", userId)
-                .header("Authorization", "Bearer " + tokenService.createNewServiceToken())
+    public void compensateUserServiceRegistrationIfFailed(Long userId, UUID idempotencyKey) throws Exception {
+        RestClient.RequestHeadersSpec<?> request = userId != null
+                ? restClient.delete().uri("/api/v1/users/{userId}", userId)
+                : restClient.delete().uri("/api/v1/users").header(IDEMPOTENCY_KEY_HEADER, idempotencyKey.toString());
+        request
+                .header("Authorization", "Bearer " + serviceTokenHolder.getToken())
                 .retrieve()
-                .onStatus(httpStatusCode -> !httpStatusCode.is2xxSuccessful(), (request, resp) -> {
-                    logger.warn("Failed to compensate userRegistration with userId: {}", userId);
+                .onStatus(httpStatusCode -> !httpStatusCode.is2xxSuccessful(), (req, resp) -> {
+                    if (isGone(resp.getStatusCode())) {
+                        logger.info("userService user of registration {} (id {}) is already gone ({}), nothing to compensate", idempotencyKey, userId, resp.getStatusCode());
+                        return;
+                    }
+                    logger.warn("Failed to compensate registration {} with userId: {}", idempotencyKey, userId);
                     throw new UserRegistrationException("Failed to compensate user");
                 })
-                .body(UserServiceUserRegistrationResponseDto.class);
+                .toBodilessEntity();
     }
 
-
-}
\ No newline at end of file
+    private static boolean isGone(HttpStatusCode statusCode) {
+        return statusCode.isSameCodeAs(HttpStatus.NOT_FOUND) || statusCode.isSameCodeAs(HttpStatus.GONE);
+    }
+}
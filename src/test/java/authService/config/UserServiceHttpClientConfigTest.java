@@ -0,0 +1,94 @@
+package authService.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserServiceHttpClientConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<Object> clientConnections = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            clientConnections.add(exchange.getRemoteAddress());
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void reusesPooledConnectionsAcrossRequests() {
+        ClientHttpRequestFactory requestFactory = requestFactory(HttpClient.Version.HTTP_1_1);
+        RestClient restClient = restClient(requestFactory);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(restClient.get().uri("/ok").retrieve().body(String.class)).isEqualTo("ok");
+        }
+
+        assertThat(requestFactory).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        assertThat(clientConnections).hasSize(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "user-service").tag("state", "available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void failsFastWhenUserServiceDoesNotAnswer() {
+        RestClient restClient = restClient(requestFactory(HttpClient.Version.HTTP_1_1));
+
+        assertThatThrownBy(() -> restClient.get().uri("/slow").retrieve().toBodilessEntity())
+                .isInstanceOf(ResourceAccessException.class);
+    }
+
+    @Test
+    void usesJdkClientForHttp2() {
+        assertThat(requestFactory(HttpClient.Version.HTTP_2)).isInstanceOf(JdkClientHttpRequestFactory.class);
+    }
+
+    private ClientHttpRequestFactory requestFactory(HttpClient.Version version) {
+        return new UserServiceHttpClientConfig().userServiceRequestFactory(version, 10, 5, 1_000, 500, 200, 30_000, 300_000, meterRegistry);
+    }
+
+    private RestClient restClient(ClientHttpRequestFactory requestFactory) {
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package authService.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(10, meterRegistry);
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void recordsVirtualThreadsBlockedInsideSynchronized() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> sleepWhileHoldingMonitor(50)).join();
+
+        Timer pinned = meterRegistry.get("jvm.threads.virtual.pinned").timer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pinned.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(pinned.count()).isEqualTo(1);
+        assertThat(pinned.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void ignoresPinsShorterThanTheThreshold() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> sleepWhileHoldingMonitor(1)).join();
+        Thread.sleep(1_500);
+
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned").timer().count()).isZero();
+    }
+
+    private void sleepWhileHoldingMonitor(long millis) {
+        synchronized (lock) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
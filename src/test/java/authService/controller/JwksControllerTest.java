@@ -0,0 +1,66 @@
+package authService.controller;
+
+import authService.security.JwkSetProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwksControllerTest {
+
+    private static final byte[] BODY = "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"abc\"";
+
+    private final JwkSetProvider jwkSetProvider = mock(JwkSetProvider.class);
+    private final JwksController controller = new JwksController(jwkSetProvider, 300);
+
+    @Test
+    void servesBodyWithEtagAndCacheControl() {
+        when(jwkSetProvider.getJwkSet()).thenReturn(new JwkSetProvider.JwkSet(BODY, ETAG));
+
+        ResponseEntity<byte[]> response = controller.getJwks(request(null));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(BODY);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=300, public");
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEtag() {
+        when(jwkSetProvider.getJwkSet()).thenReturn(new JwkSetProvider.JwkSet(BODY, ETAG));
+
+        ResponseEntity<byte[]> response = controller.getJwks(request(ETAG));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+    }
+
+    @Test
+    void servesBodyForStaleEtag() {
+        when(jwkSetProvider.getJwkSet()).thenReturn(new JwkSetProvider.JwkSet(BODY, ETAG));
+
+        ResponseEntity<byte[]> response = controller.getJwks(request("\"old\""));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(BODY);
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/.well-known/jwks.json");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,56 @@
+package authService.security;
+
+import authService.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CredentialsChangeListenerTest {
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CredentialsChangeListener listener = new CredentialsChangeListener(eventPublisher);
+
+    @Test
+    void publishesOnceWhenPasswordChanges() {
+        User user = user();
+        user.setPassword("new-hash");
+
+        listener.credentialsChanged(user);
+        listener.credentialsChanged(user);
+
+        verify(eventPublisher, times(1)).publishEvent(new UserCredentialsChangedEvent(1L));
+    }
+
+    @Test
+    void publishesWhenUserIsDisabled() {
+        User user = user();
+        user.setEnabled(false);
+
+        listener.credentialsChanged(user);
+
+        verify(eventPublisher).publishEvent(new UserCredentialsChangedEvent(1L));
+    }
+
+    @Test
+    void ignoresOtherUpdates() {
+        User user = user();
+        user.setPassword("hash");
+        user.setEmail("other@example.com");
+        user.setEnabled(true);
+
+        listener.credentialsChanged(user);
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private static User user() {
+        User user = new User("user", "hash", "user@example.com");
+        user.setId(1L);
+        return user;
+    }
+}
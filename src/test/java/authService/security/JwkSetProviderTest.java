@@ -0,0 +1,73 @@
+package authService.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwkSetProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KeyProvider keyProvider = mock(KeyProvider.class);
+    private final JwkSetProvider jwkSetProvider = new JwkSetProvider(keyProvider, objectMapper);
+
+    private JwtKey rsaKey;
+    private JwtKey ecKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        KeyPair rsaPair = rsa.generateKeyPair();
+        rsaKey = new JwtKey("k1", JwtAlgorithm.RS256, rsaPair.getPublic(), rsaPair.getPrivate());
+
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKey = new JwtKey("k2", JwtAlgorithm.ES256, ec.generateKeyPair().getPublic(), null);
+
+        when(keyProvider.getKeyRing()).thenReturn(new KeyRing(rsaKey, Map.of()));
+        jwkSetProvider.init();
+    }
+
+    @Test
+    void publishesVerificationKeysSortedByKeyId() throws Exception {
+        jwkSetProvider.onKeyRingChanged(new KeyRingChangedEvent(new KeyRing(rsaKey, Map.of("k2", ecKey))));
+
+        JsonNode keys = objectMapper.readTree(jwkSetProvider.getJwkSet().body()).path("keys");
+
+        assertThat(keys).hasSize(2);
+        assertThat(keys.get(0).path("kid").asText()).isEqualTo("k1");
+        assertThat(keys.get(0).path("kty").asText()).isEqualTo("RSA");
+        assertThat(keys.get(0).path("alg").asText()).isEqualTo("RS256");
+        assertThat(keys.get(1).path("kid").asText()).isEqualTo("k2");
+        assertThat(keys.get(1).path("crv").asText()).isEqualTo("P-256");
+        assertThat(keys.get(1).has("d")).isFalse();
+    }
+
+    @Test
+    void etagIsStableForTheSameKeyRing() throws Exception {
+        String etag = jwkSetProvider.getJwkSet().etag();
+
+        jwkSetProvider.onKeyRingChanged(new KeyRingChangedEvent(new KeyRing(rsaKey, Map.of())));
+
+        assertThat(jwkSetProvider.getJwkSet().etag()).isEqualTo(etag).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void etagChangesWhenKeyRingChanges() throws Exception {
+        String etag = jwkSetProvider.getJwkSet().etag();
+
+        jwkSetProvider.onKeyRingChanged(new KeyRingChangedEvent(new KeyRing(rsaKey, Map.of("k2", ecKey))));
+
+        assertThat(jwkSetProvider.getJwkSet().etag()).isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,85 @@
+package authService.security;
+
+import authService.entity.RoleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.EllipticCurve;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAlgorithmTest {
+
+    @ParameterizedTest
+    @EnumSource(JwtAlgorithm.class)
+    void signsAndVerifiesWithEachAlgorithm(JwtAlgorithm algorithm) throws Exception {
+        KeyPair keyPair = generateKeyPair(algorithm);
+        KeyProvider keyProvider = mock(KeyProvider.class);
+        when(keyProvider.getActiveKey()).thenReturn(new JwtKey("k1", algorithm, keyPair.getPublic(), keyPair.getPrivate()));
+        when(keyProvider.getVerificationKey("k1")).thenReturn(keyPair.getPublic());
+        JwtUtil jwtUtil = new JwtUtil(keyProvider);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000L);
+
+        String token = jwtUtil.generateAccessToken(new SecurityUser(1L, "alice", "hash", true, RoleSet.of(RoleType.ROLE_USER)));
+
+        assertThat(jwtUtil.verifyToken(token)).map(TokenClaims::subject).contains("alice");
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtAlgorithm.class)
+    void detectsAlgorithmFromPublicKey(JwtAlgorithm algorithm) throws Exception {
+        assertThat(JwtAlgorithm.fromPublicKey(generateKeyPair(algorithm).getPublic())).isEqualTo(algorithm);
+    }
+
+    @Test
+    void rejectsUnsupportedCurve() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp384r1"));
+
+        assertThatThrownBy(() -> JwtAlgorithm.fromPublicKey(generator.generateKeyPair().getPublic()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOther256BitCurves() {
+        // secp256k1 has a 256-bit field like P-256 but is not valid for ES256. The JDK no longer generates keys
+        // on it, so the key is built from the curve parameters.
+        ECParameterSpec secp256k1 = new ECParameterSpec(
+                new EllipticCurve(new ECFieldFp(new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F", 16)),
+                        BigInteger.ZERO, BigInteger.valueOf(7)),
+                new ECPoint(new BigInteger("79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798", 16),
+                        new BigInteger("483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8", 16)),
+                new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16),
+                1);
+        ECPublicKey publicKey = mock(ECPublicKey.class);
+        when(publicKey.getParams()).thenReturn(secp256k1);
+        when(publicKey.getW()).thenReturn(secp256k1.getGenerator());
+        when(publicKey.getAlgorithm()).thenReturn("EC");
+
+        assertThatThrownBy(() -> JwtAlgorithm.fromPublicKey(publicKey)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static KeyPair generateKeyPair(JwtAlgorithm algorithm) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+        switch (algorithm) {
+            case RS256 -> generator.initialize(2048);
+            case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+            case ED25519 -> {
+            }
+        }
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,73 @@
+package authService.security;
+
+import authService.entity.RoleType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtUtilTest {
+
+    private final KeyProvider keyProvider = mock(KeyProvider.class);
+    private final JwtUtil jwtUtil = new JwtUtil(keyProvider);
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        when(keyProvider.getActiveKey()).thenReturn(new JwtKey("k1", JwtAlgorithm.RS256, keyPair.getPublic(), keyPair.getPrivate()));
+        when(keyProvider.getVerificationKey("k1")).thenReturn(keyPair.getPublic());
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000L);
+    }
+
+    @Test
+    void parsesAllClaimsOfIssuedToken() throws Exception {
+        String token = jwtUtil.generateAccessToken(new SecurityUser(7L, "alice", "hash", true, RoleSet.of(RoleType.ROLE_USER)));
+
+        TokenClaims claims = jwtUtil.parseToken(token);
+
+        assertThat(claims.subject()).isEqualTo("alice");
+        assertThat(claims.userId()).isEqualTo("7");
+        assertThat(claims.roles()).containsExactly("ROLE_USER");
+        assertThat(claims.tokenId()).isNotBlank();
+        assertThat(claims.expiration()).isBetween(Instant.now().plusSeconds(50), Instant.now().plusSeconds(61));
+    }
+
+    @Test
+    void rejectsExpiredToken() throws Exception {
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", -60_000L);
+
+        String token = jwtUtil.generateServiceAccessToken();
+
+        assertThat(jwtUtil.verifyToken(token)).isEmpty();
+        assertThat(jwtUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void rejectsTokenSignedWithUnknownKey() throws Exception {
+        String token = jwtUtil.generateServiceAccessToken();
+        when(keyProvider.getVerificationKey("k1")).thenReturn(null);
+
+        assertThat(jwtUtil.verifyToken(token)).isEmpty();
+    }
+
+    @Test
+    void rejectsTamperedToken() throws Exception {
+        String token = jwtUtil.generateServiceAccessToken();
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + jwtUtil.generateAdminAccessToken().split("\\.")[1] + "." + parts[2];
+
+        assertThat(jwtUtil.verifyToken(forged)).isEmpty();
+        assertThatThrownBy(() -> jwtUtil.parseToken(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
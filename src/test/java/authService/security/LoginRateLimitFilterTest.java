@@ -0,0 +1,71 @@
+package authService.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginRateLimitFilter filter = new LoginRateLimitFilter(
+            new LoginRateLimiter(true, 10, 60_000, 1, 60_000, 1000, meterRegistry), new ObjectMapper().findAndRegisterModules(), 1024);
+
+    @Test
+    void passesBufferedBodyToController() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = send("/api/v1/auth/token", "{\"username\":\"alice\"}", "10.0.0.1", chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"username\":\"alice\"}");
+    }
+
+    @Test
+    void throttlesUsernameAcrossCaseVariantsAndIps() throws Exception {
+        send("/api/v1/auth/token", "{\"username\":\"alice\"}", "10.0.0.1", new MockFilterChain());
+
+        MockHttpServletResponse response = send("/api/v1/auth/token", "{\"username\":\"ALICE\"}", "10.0.0.2", new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(meterRegistry.get("rate_limit.rejected").tag("key_class", "username").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsSeparateBudgetsPerEndpoint() throws Exception {
+        send("/api/v1/auth/token", "{\"username\":\"alice\"}", "10.0.0.1", new MockFilterChain());
+
+        assertThat(send("/api/v1/auth/register", "{\"username\":\"alice\"}", "10.0.0.1", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsOversizedBody() throws Exception {
+        MockHttpServletResponse response = send("/api/v1/auth/token", "x".repeat(2048), "10.0.0.1", new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    void ignoresOtherEndpoints() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(send("/api/v1/auth/validate", "{\"username\":\"alice\"}", "10.0.0.1", new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(String uri, String body, String remoteAddress, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddress);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
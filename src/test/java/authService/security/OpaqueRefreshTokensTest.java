@@ -0,0 +1,36 @@
+package authService.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpaqueRefreshTokensTest {
+
+    @Test
+    void carriesTheExactStoredExpiry() {
+        LocalDateTime expiryDate = OpaqueRefreshTokens.expiryDateFromNow(86_400_000);
+
+        String token = OpaqueRefreshTokens.issue(expiryDate);
+
+        assertThat(expiryDate.getNano()).isZero();
+        assertThat(expiryDate).isBetween(LocalDateTime.now().plusDays(1).minusSeconds(5), LocalDateTime.now().plusDays(1));
+        assertThat(OpaqueRefreshTokens.expiryDate(token)).isEqualTo(expiryDate);
+    }
+
+    @Test
+    void tokensAreUniqueForTheSameExpiry() {
+        LocalDateTime expiryDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(OpaqueRefreshTokens.issue(expiryDate)).isNotEqualTo(OpaqueRefreshTokens.issue(expiryDate));
+    }
+
+    @Test
+    void tokensWithoutReadableExpiryHaveNone() {
+        assertThat(OpaqueRefreshTokens.expiryDate("3f1c2a4b-5e4f-408a-719b-8c7d6e5f4011")).isNull();
+        assertThat(OpaqueRefreshTokens.expiryDate("random.not-a-number")).isNull();
+        assertThat(OpaqueRefreshTokens.expiryDate("random.")).isNull();
+    }
+}
@@ -0,0 +1,41 @@
+package authService.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncodersTest {
+
+    private final PasswordEncoder passwordEncoder = PasswordEncoders.create(PasswordEncoders.BCRYPT, 5);
+
+    @Test
+    void upgradesWeakerBCryptHashes() {
+        assertThat(passwordEncoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+    }
+
+    @Test
+    void keepsHashesAtOrAboveTheTargetCost() {
+        // A node configured with a lower cost must not rewrite hashes produced by a stronger node.
+        assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("secret"))).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void verifiesLegacyHashesWithoutIdAsBCrypt() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", legacy)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", legacy)).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void upgradesHashesOfAnotherAlgorithm() {
+        String pbkdf2 = PasswordEncoders.create(PasswordEncoders.PBKDF2, 5).encode("secret");
+
+        assertThat(passwordEncoder.matches("secret", pbkdf2)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(pbkdf2)).isTrue();
+    }
+}
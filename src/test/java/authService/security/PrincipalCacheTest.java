@@ -0,0 +1,82 @@
+package authService.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache(true, 100, 60_000, new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsEachUserOnce() {
+        Function<String, Optional<SecurityUser>> loader = found();
+
+        assertThat(cache.get("alice", loader)).isPresent();
+        assertThat(cache.get("alice", loader)).isPresent();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        Function<String, Optional<SecurityUser>> loader = username -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(cache.get("alice", loader)).isEmpty();
+        assertThat(cache.get("alice", loader)).isEmpty();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidatedUserIsLoadedAgain() {
+        Function<String, Optional<SecurityUser>> loader = found();
+
+        cache.get("alice", loader);
+        cache.invalidate("alice");
+        cache.get("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void putReplacesCachedPrincipal() {
+        cache.get("alice", found());
+        cache.put(principal("alice").withPassword("new-hash"));
+
+        assertThat(cache.get("alice", found())).get().extracting(SecurityUser::getPassword).isEqualTo("new-hash");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        PrincipalCache disabled = new PrincipalCache(false, 100, 60_000, new SimpleMeterRegistry());
+        Function<String, Optional<SecurityUser>> loader = found();
+
+        disabled.get("alice", loader);
+        disabled.put(principal("alice"));
+        disabled.get("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Function<String, Optional<SecurityUser>> found() {
+        return username -> {
+            loads.incrementAndGet();
+            return Optional.of(principal(username));
+        };
+    }
+
+    private static SecurityUser principal(String username) {
+        return new SecurityUser(1L, username, "hash", true, RoleSet.of());
+    }
+}
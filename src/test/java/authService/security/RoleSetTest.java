@@ -0,0 +1,35 @@
+package authService.security;
+
+import authService.entity.RoleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleSetTest {
+
+    @Test
+    void sharesOneInstancePerCombination() {
+        assertThat(RoleSet.of(RoleType.ROLE_ADMIN, RoleType.ROLE_USER))
+                .isSameAs(RoleSet.of(List.of(RoleType.ROLE_USER, RoleType.ROLE_ADMIN)))
+                .isSameAs(RoleSet.fromAuthorityNames(List.of("ROLE_USER", "ROLE_ADMIN")));
+    }
+
+    @Test
+    void precomputesAuthorities() {
+        RoleSet roles = RoleSet.of(RoleType.ROLE_USER, RoleType.ROLE_ADMIN);
+
+        assertThat(roles.authorityNames()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        assertThat(roles.authorities()).containsExactly(RoleSet.authority(RoleType.ROLE_USER), RoleSet.authority(RoleType.ROLE_ADMIN));
+        assertThat(roles.contains(RoleType.ROLE_ADMIN)).isTrue();
+        assertThat(roles.contains(RoleType.ROLE_INTERNAL_SERVICE)).isFalse();
+    }
+
+    @Test
+    void ignoresUnknownAuthorityNames() {
+        assertThat(RoleSet.fromAuthorityNames(List.of("ROLE_USER", "SCOPE_read", "")))
+                .isSameAs(RoleSet.of(RoleType.ROLE_USER));
+        assertThat(RoleSet.fromAuthorityNames(List.of()).types()).isEmpty();
+    }
+}
@@ -0,0 +1,78 @@
+package authService.security;
+
+import authService.entity.Role;
+import authService.entity.RoleType;
+import authService.entity.User;
+import authService.repository.UserCredentials;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityUserTest {
+
+    @Test
+    void buildsPrincipalFromProjection() {
+        SecurityUser principal = SecurityUser.from(new Credentials(1L, "alice", "hash", true, "ROLE_USER,ROLE_ADMIN"));
+
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("alice");
+        assertThat(principal.getPassword()).isEqualTo("hash");
+        assertThat(principal.isEnabled()).isTrue();
+        assertThat(principal.getRoles()).isSameAs(RoleSet.of(RoleType.ROLE_USER, RoleType.ROLE_ADMIN));
+    }
+
+    @Test
+    void userWithoutRolesGetsEmptyRoleSet() {
+        SecurityUser principal = SecurityUser.from(new Credentials(1L, "alice", "hash", true, null));
+
+        assertThat(principal.getRoles().types()).isEmpty();
+        assertThat(principal.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void onlyExplicitlyDisabledUsersAreDisabled() {
+        assertThat(SecurityUser.from(new Credentials(1L, "alice", "hash", false, null)).isEnabled()).isFalse();
+        assertThat(SecurityUser.from(new Credentials(1L, "alice", "hash", null, null)).isEnabled()).isTrue();
+    }
+
+    @Test
+    void projectionAndEntityProduceTheSamePrincipal() {
+        User user = new User("alice", "hash", "alice@example.com");
+        user.setId(1L);
+        user.setRoles(Set.of(new Role(RoleType.ROLE_USER, "User")));
+
+        SecurityUser fromEntity = SecurityUser.from(user);
+        SecurityUser fromProjection = SecurityUser.from(new Credentials(1L, "alice", "hash", true, "ROLE_USER"));
+
+        assertThat(fromProjection).usingRecursiveComparison().isEqualTo(fromEntity);
+    }
+
+    private record Credentials(Long id, String username, String password, Boolean enabled, String roles) implements UserCredentials {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getPassword() {
+            return password;
+        }
+
+        @Override
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public String getRoles() {
+            return roles;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package authService.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServiceTokenHolderTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void reusesTokenUntilItIsDueForRenewal() throws Exception {
+        when(jwtUtil.getJwtExpirationMs()).thenReturn(3_600_000L);
+        when(jwtUtil.generateServiceAccessToken()).thenReturn("t1", "t2");
+        ServiceTokenHolder holder = new ServiceTokenHolder(jwtUtil, 300_000, meterRegistry);
+
+        assertThat(holder.getToken()).isEqualTo("t1");
+        holder.renewIfExpiring();
+        assertThat(holder.getToken()).isEqualTo("t1");
+
+        verify(jwtUtil, times(1)).generateServiceAccessToken();
+    }
+
+    @Test
+    void renewsShortLivedTokensHalfWayThroughTheirLifetime() throws Exception {
+        // renew-before exceeds the lifetime, so the margin falls back to half of it.
+        when(jwtUtil.getJwtExpirationMs()).thenReturn(1_000L);
+        when(jwtUtil.generateServiceAccessToken()).thenReturn("t1", "t2");
+        ServiceTokenHolder holder = new ServiceTokenHolder(jwtUtil, 300_000, meterRegistry);
+        holder.renewIfExpiring();
+
+        holder.renewIfExpiring();
+        assertThat(holder.getToken()).isEqualTo("t1");
+
+        Thread.sleep(600);
+        holder.renewIfExpiring();
+        assertThat(holder.getToken()).isEqualTo("t2");
+    }
+
+    @Test
+    void keyRotationForcesNewToken() throws Exception {
+        when(jwtUtil.getJwtExpirationMs()).thenReturn(3_600_000L);
+        when(jwtUtil.generateServiceAccessToken()).thenReturn("t1", "t2");
+        ServiceTokenHolder holder = new ServiceTokenHolder(jwtUtil, 300_000, meterRegistry);
+        holder.renewIfExpiring();
+
+        holder.onKeyRingChanged(new KeyRingChangedEvent(mock(KeyRing.class)));
+
+        assertThat(holder.getToken()).isEqualTo("t2");
+    }
+
+    @Test
+    void failedBackgroundRenewalKeepsCurrentToken() throws Exception {
+        when(jwtUtil.getJwtExpirationMs()).thenReturn(3_600_000L);
+        when(jwtUtil.generateServiceAccessToken()).thenReturn("t1").thenThrow(new IllegalStateException("no key"));
+        ServiceTokenHolder holder = new ServiceTokenHolder(jwtUtil, 300_000, meterRegistry);
+        holder.renewIfExpiring();
+
+        holder.onKeyRingChanged(new KeyRingChangedEvent(mock(KeyRing.class)));
+
+        assertThat(holder.getToken()).isEqualTo("t1");
+        assertThat(meterRegistry.get("service_token.renewal.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void callerMintsSynchronouslyWhenNoTokenIsHeld() throws Exception {
+        when(jwtUtil.generateServiceAccessToken()).thenThrow(new IllegalStateException("no key"));
+        ServiceTokenHolder holder = new ServiceTokenHolder(jwtUtil, 300_000, meterRegistry);
+
+        assertThatThrownBy(holder::getToken).isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("service_token.last_refresh").gauge().value()).isZero();
+    }
+}
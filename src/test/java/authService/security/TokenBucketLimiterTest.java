@@ -0,0 +1,64 @@
+package authService.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long PERIOD = Duration.ofMinutes(1).toNanos();
+
+    private final AtomicLong time = new AtomicLong(Duration.ofDays(1).toNanos());
+
+    @Test
+    void admitsCapacityThenReportsWaitForNextToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, PERIOD, 100, time::get);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+
+        assertThat(limiter.tryAcquire("key")).isEqualTo(PERIOD / 3);
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void refillsEvenlyOverThePeriod() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, PERIOD, 100, time::get);
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+
+        time.addAndGet(PERIOD / 2);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void floodOfDistinctKeysDoesNotThrottleOtherKeys() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, PERIOD, 10, time::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("attacker-" + i);
+        }
+        limiter.cleanUp();
+
+        assertThat(limiter.tryAcquire("victim")).isZero();
+        assertThat(limiter.size()).isLessThanOrEqualTo(11);
+    }
+
+    @Test
+    void expiresBucketsIdleForAWholePeriod() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, PERIOD, 100, time::get);
+        limiter.tryAcquire("key");
+
+        time.addAndGet(PERIOD);
+        limiter.cleanUp();
+
+        assertThat(limiter.size()).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+}
@@ -0,0 +1,24 @@
+package authService.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDigestTest {
+
+    @Test
+    void producesFixedWidthSha256() {
+        assertThat(TokenDigest.sha256("")).hasSize(32);
+        assertThat(TokenDigest.sha256("a".repeat(10_000))).hasSize(32);
+        assertThat(HexFormat.of().formatHex(TokenDigest.sha256("abc")))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void distinguishesTokens() {
+        assertThat(TokenDigest.sha256("token-1")).isEqualTo(TokenDigest.sha256("token-1"));
+        assertThat(TokenDigest.sha256("token-1")).isNotEqualTo(TokenDigest.sha256("token-2"));
+    }
+}
@@ -0,0 +1,78 @@
+package authService.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenValidationCacheTest {
+
+    private final TokenValidationCache cache = new TokenValidationCache(true, 100, 60_000, new SimpleMeterRegistry());
+
+    @Test
+    void verifiesEachValidTokenOnce() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Optional<TokenClaims>> verifier = token -> {
+            verifications.incrementAndGet();
+            return Optional.of(claims(Instant.now().plusSeconds(600)));
+        };
+
+        assertThat(cache.get("token", verifier)).isPresent();
+        assertThat(cache.get("token", verifier)).isPresent();
+
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheInvalidTokens() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Optional<TokenClaims>> verifier = token -> {
+            verifications.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertThat(cache.get("token", verifier)).isEmpty();
+        assertThat(cache.get("token", verifier)).isEmpty();
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void doesNotServeEntriesPastTokenExpiry() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Optional<TokenClaims>> verifier = token -> {
+            verifications.incrementAndGet();
+            return Optional.of(claims(Instant.now().minusSeconds(1)));
+        };
+
+        cache.get("token", verifier);
+        cache.get("token", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void invalidatedTokenIsVerifiedAgain() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, Optional<TokenClaims>> verifier = token -> {
+            verifications.incrementAndGet();
+            return Optional.of(claims(Instant.now().plusSeconds(600)));
+        };
+
+        cache.get("token", verifier);
+        cache.invalidate("token");
+        cache.get("token", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    private static TokenClaims claims(Instant expiration) {
+        return new TokenClaims("jti", "user", "1", Set.of("ROLE_USER"), expiration);
+    }
+}
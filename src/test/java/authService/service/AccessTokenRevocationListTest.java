@@ -0,0 +1,111 @@
+package authService.service;
+
+import authService.entity.RevokedAccessToken;
+import authService.repository.RevokedAccessTokenRepository;
+import authService.security.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccessTokenRevocationListTest {
+
+    private static final LocalDateTime DATABASE_NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final RevokedAccessTokenRepository repository = mock(RevokedAccessTokenRepository.class);
+    private final DatabaseClock databaseClock = mock(DatabaseClock.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final AccessTokenRevocationList revocationList = new AccessTokenRevocationList(repository, databaseClock, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(revocationList, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokesTokenImmediatelyAndStampsItWithDatabaseTime() {
+        when(databaseClock.now()).thenReturn(DATABASE_NOW);
+        TokenClaims claims = claims(UUID.randomUUID().toString());
+
+        assertThat(revocationList.revoke(claims)).isTrue();
+
+        assertThat(revocationList.isRevoked(claims)).isTrue();
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID().toString()))).isFalse();
+        verify(entityManager).persist(argThat(revoked -> ((RevokedAccessToken) revoked).getRevokedAt().equals(DATABASE_NOW)));
+    }
+
+    @Test
+    void appliesRevocationOnlyOnceTheTransactionCommits() {
+        when(databaseClock.now()).thenReturn(DATABASE_NOW);
+        TokenClaims claims = claims(UUID.randomUUID().toString());
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationList.revoke(claims);
+        assertThat(revocationList.isRevoked(claims)).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(revocationList.isRevoked(claims)).isTrue();
+    }
+
+    @Test
+    void keepsTheFirstRevocationOfAToken() {
+        UUID jti = UUID.randomUUID();
+        when(repository.existsById(jti)).thenReturn(true);
+
+        assertThat(revocationList.revoke(claims(jti.toString()))).isTrue();
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void ignoresTokensWithoutUuidId() {
+        assertThat(revocationList.revoke(claims("not-a-uuid"))).isFalse();
+        assertThat(revocationList.revoke(claims(null))).isFalse();
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void picksUpRevocationsFromOtherInstances() {
+        when(databaseClock.now()).thenReturn(DATABASE_NOW, DATABASE_NOW.plusSeconds(2));
+        UUID jti = UUID.randomUUID();
+        when(repository.findActive()).thenReturn(List.of());
+        when(repository.findActiveRevokedAfter(DATABASE_NOW.minus(IncrementalSync.OVERLAP)))
+                .thenReturn(List.of(new RevokedAccessToken(jti, DATABASE_NOW.plusSeconds(1), LocalDateTime.now().plusHours(1))));
+
+        revocationList.load();
+        assertThat(revocationList.isRevoked(claims(jti.toString()))).isFalse();
+        revocationList.sync();
+
+        assertThat(revocationList.isRevoked(claims(jti.toString()))).isTrue();
+    }
+
+    private static TokenClaims claims(String tokenId) {
+        return new TokenClaims(tokenId, "user", "1", Set.of("ROLE_USER"), Instant.now().plusSeconds(600));
+    }
+}
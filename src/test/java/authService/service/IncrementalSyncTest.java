@@ -0,0 +1,63 @@
+package authService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IncrementalSyncTest {
+
+    private static final LocalDateTime LOAD_STARTED = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final DatabaseClock databaseClock = mock(DatabaseClock.class);
+    private final IncrementalSync incrementalSync = new IncrementalSync(databaseClock);
+    private final List<LocalDateTime> reads = new ArrayList<>();
+
+    @Test
+    void doesNotSyncBeforeFirstLoad() {
+        assertThat(incrementalSync.sync(reads::add)).isFalse();
+        assertThat(reads).isEmpty();
+    }
+
+    @Test
+    void readsFromDatabaseTimeBeforeThePreviousReadMinusOverlap() {
+        LocalDateTime firstSync = LOAD_STARTED.plusSeconds(5);
+        when(databaseClock.now()).thenReturn(LOAD_STARTED, firstSync, firstSync.plusSeconds(5));
+
+        incrementalSync.load(() -> { });
+        incrementalSync.sync(reads::add);
+        incrementalSync.sync(reads::add);
+
+        assertThat(reads).containsExactly(LOAD_STARTED.minus(IncrementalSync.OVERLAP), firstSync.minus(IncrementalSync.OVERLAP));
+    }
+
+    @Test
+    void keepsWatermarkWhenReadFails() {
+        when(databaseClock.now()).thenReturn(LOAD_STARTED, LOAD_STARTED.plusSeconds(5), LOAD_STARTED.plusSeconds(10));
+        incrementalSync.load(() -> { });
+
+        assertThatThrownBy(() -> incrementalSync.sync(since -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+        incrementalSync.sync(reads::add);
+
+        assertThat(reads).containsExactly(LOAD_STARTED.minus(IncrementalSync.OVERLAP));
+    }
+
+    @Test
+    void failedLoadLeavesSyncDisabled() {
+        when(databaseClock.now()).thenReturn(LOAD_STARTED);
+
+        assertThatThrownBy(() -> incrementalSync.load(() -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(incrementalSync.sync(reads::add)).isFalse();
+    }
+}
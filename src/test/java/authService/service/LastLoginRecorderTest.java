@@ -0,0 +1,97 @@
+package authService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LastLoginRecorderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LastLoginRecorder recorder = new LastLoginRecorder(jdbcTemplate, 2, meterRegistry);
+    private final List<List<Map.Entry<Long, LocalDateTime>>> batches = new ArrayList<>();
+
+    @Test
+    void writesLatestLoginPerUserInOrderedBatches() {
+        captureBatches();
+        recorder.record(3L, NOW);
+        recorder.record(1L, NOW.plusMinutes(1));
+        recorder.record(1L, NOW);
+        recorder.record(2L, NOW);
+
+        recorder.flush();
+
+        assertThat(batches).containsExactly(
+                List.of(Map.entry(1L, NOW.plusMinutes(1)), Map.entry(2L, NOW)),
+                List.of(Map.entry(3L, NOW)));
+        assertThat(meterRegistry.get("last_login.flushed").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("last_login.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void bindsTimestampTwiceForTheMonotonicGuard() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            ParameterizedPreparedStatementSetter<Map.Entry<Long, LocalDateTime>> setter = invocation.getArgument(3);
+            for (Map.Entry<Long, LocalDateTime> entry : invocation.<Collection<Map.Entry<Long, LocalDateTime>>>getArgument(1)) {
+                setter.setValues(statement, entry);
+            }
+            return new int[0][];
+        });
+        recorder.record(7L, NOW);
+
+        recorder.flush();
+
+        verify(statement).setTimestamp(1, Timestamp.valueOf(NOW));
+        verify(statement).setLong(2, 7L);
+        verify(statement).setTimestamp(3, Timestamp.valueOf(NOW));
+    }
+
+    @Test
+    void keepsPendingLoginsWhenFlushFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        recorder.record(1L, NOW);
+
+        recorder.flush();
+
+        assertThat(meterRegistry.get("last_login.pending").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("last_login.flushed").counter().count()).isZero();
+    }
+
+    @Test
+    void skipsDatabaseWhenNothingIsPending() {
+        recorder.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    private void captureBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<Map.Entry<Long, LocalDateTime>>>getArgument(1)));
+            return new int[0][];
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package authService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RefreshTokenPartitionMaintainerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void premakesPartitionsForTheRefreshLifetimePlusMargin() {
+        maintainer(Duration.ofDays(30).toMillis()).maintain();
+
+        verify(jdbcTemplate).queryForObject(contains("create_refresh_token_partitions(CURRENT_DATE, CURRENT_DATE + "), eq(Integer.class), eq(32L));
+        verify(jdbcTemplate).queryForObject(contains("drop_refresh_token_partitions(CURRENT_DATE - "), eq(Integer.class), eq(1));
+    }
+
+    @Test
+    void roundsPartialDaysUp() {
+        maintainer(Duration.ofHours(25).toMillis()).maintain();
+
+        verify(jdbcTemplate).queryForObject(contains("create_refresh_token_partitions"), eq(Integer.class), eq(4L));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        new RefreshTokenPartitionMaintainer(jdbcTemplate, false, Duration.ofDays(1).toMillis(), 2, 1, new SimpleMeterRegistry()).maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private RefreshTokenPartitionMaintainer maintainer(long refreshExpirationMs) {
+        return new RefreshTokenPartitionMaintainer(jdbcTemplate, true, refreshExpirationMs, 2, 1, new SimpleMeterRegistry());
+    }
+}
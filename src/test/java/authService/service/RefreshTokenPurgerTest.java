@@ -0,0 +1,99 @@
+package authService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenPurgerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement lock = mock(PreparedStatement.class);
+    private final PreparedStatement unlock = mock(PreparedStatement.class);
+    private final PreparedStatement delete = mock(PreparedStatement.class);
+    private final PreparedStatement oldest = mock(PreparedStatement.class);
+    private final ResultSet lockResult = mock(ResultSet.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RefreshTokenPurger purger = new RefreshTokenPurger(jdbcTemplate, true, 2, 0, 10, meterRegistry);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<Long>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(contains("pg_try_advisory_lock"))).thenReturn(lock);
+        when(connection.prepareStatement(contains("pg_advisory_unlock"))).thenReturn(unlock);
+        when(connection.prepareStatement(startsWith("DELETE"))).thenReturn(delete);
+        when(connection.prepareStatement(startsWith("SELECT MIN"))).thenReturn(oldest);
+        when(lock.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(oldest.executeQuery()).thenReturn(mock(ResultSet.class));
+    }
+
+    @Test
+    void deletesChunksUntilOneComesBackShort() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(delete.executeUpdate()).thenReturn(2, 2, 1);
+
+        assertThat(purger.purge()).isEqualTo(5);
+
+        verify(delete, times(3)).executeUpdate();
+        verify(delete, times(3)).setInt(2, 2);
+        verify(unlock).execute();
+        assertThat(meterRegistry.get("refresh_tokens.purge.rows").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void stopsAfterMaxChunksPerRun() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(delete.executeUpdate()).thenReturn(2);
+
+        assertThat(purger.purge()).isEqualTo(20);
+
+        verify(delete, times(10)).executeUpdate();
+        verify(unlock).execute();
+    }
+
+    @Test
+    void skipsRunWhenAnotherInstanceHoldsTheLock() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        assertThat(purger.purge()).isZero();
+
+        verify(delete, never()).executeUpdate();
+        verify(unlock, never()).execute();
+    }
+
+    @Test
+    void releasesLockWhenAChunkFails() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(delete.executeUpdate()).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(purger.purge()).isZero();
+
+        verify(unlock).execute();
+    }
+
+    @Test
+    void disabledPurgerDoesNotTouchTheDatabase() {
+        new RefreshTokenPurger(jdbcTemplate, false, 2, 0, 10, meterRegistry).scheduledPurge();
+
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+}
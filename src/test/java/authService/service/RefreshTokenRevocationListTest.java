@@ -0,0 +1,106 @@
+package authService.service;
+
+import authService.entity.RefreshTokenRevocation;
+import authService.repository.RefreshTokenRevocationRepository;
+import authService.security.RefreshTokenClaims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenRevocationListTest {
+
+    private static final Long USER_ID = 7L;
+    private static final long CLOCK_SKEW_MS = 1_000;
+    private static final LocalDateTime REVOKED_AT = LocalDateTime.now().withNano(500_000_000);
+
+    private final RefreshTokenRevocationRepository repository = mock(RefreshTokenRevocationRepository.class);
+    private final DatabaseClock databaseClock = mock(DatabaseClock.class);
+    private final RefreshTokenRevocationList revocationList = new RefreshTokenRevocationList(repository, databaseClock, CLOCK_SKEW_MS);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokesTokensIssuedBeforeTheUserCutoff() {
+        loadUserRevocation();
+
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.minusSeconds(1)))).isTrue();
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.plusSeconds(2)))).isFalse();
+    }
+
+    @Test
+    void revokesTokensIssuedWithinTheClockSkewAfterTheCutoff() {
+        loadUserRevocation();
+
+        // Issued by a node whose clock runs up to a second ahead of the database, so possibly before the revocation.
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.withNano(0)))).isTrue();
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.plusSeconds(1).withNano(0)))).isTrue();
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.plusSeconds(2).withNano(0)))).isFalse();
+    }
+
+    @Test
+    void stampsRevocationsWithDatabaseTime() {
+        when(repository.save(any(RefreshTokenRevocation.class))).then(returnsFirstArg());
+        when(databaseClock.now()).thenReturn(REVOKED_AT);
+
+        revocationList.revokeUser(USER_ID, REVOKED_AT.plusDays(1));
+
+        verify(repository).save(argThat(revocation -> revocation.getRevokedAt().equals(REVOKED_AT)));
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), REVOKED_AT.minusSeconds(1)))).isTrue();
+    }
+
+    @Test
+    void revokesWholeFamilyImmediately() {
+        when(repository.save(any(RefreshTokenRevocation.class))).then(returnsFirstArg());
+        when(databaseClock.now()).thenReturn(LocalDateTime.now());
+        UUID familyId = UUID.randomUUID();
+
+        revocationList.revokeFamily(familyId, LocalDateTime.now().plusDays(1));
+
+        assertThat(revocationList.isRevoked(claims(familyId, LocalDateTime.now().plusSeconds(5)))).isTrue();
+        assertThat(revocationList.isRevoked(claims(UUID.randomUUID(), LocalDateTime.now()))).isFalse();
+    }
+
+    @Test
+    void appliesRevocationOnlyOnceTheTransactionCommits() {
+        when(repository.save(any(RefreshTokenRevocation.class))).then(returnsFirstArg());
+        when(databaseClock.now()).thenReturn(LocalDateTime.now());
+        UUID familyId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationList.revokeFamily(familyId, LocalDateTime.now().plusDays(1));
+        assertThat(revocationList.isRevoked(claims(familyId, LocalDateTime.now()))).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(revocationList.isRevoked(claims(familyId, LocalDateTime.now()))).isTrue();
+    }
+
+    private void loadUserRevocation() {
+        when(repository.findActive()).thenReturn(List.of(new RefreshTokenRevocation(null, USER_ID, REVOKED_AT, REVOKED_AT.plusDays(1))));
+        revocationList.load();
+    }
+
+    private static RefreshTokenClaims claims(UUID familyId, LocalDateTime issuedAt) {
+        Instant issued = issuedAt.atZone(ZoneId.systemDefault()).toInstant();
+        return new RefreshTokenClaims(USER_ID, "user", familyId, issued, issued.plusSeconds(3600));
+    }
+}
@@ -0,0 +1,198 @@
+package authService.service;
+
+import authService.dto.UserServiceUserRegistrationResponseDto;
+import authService.entity.RegistrationOutbox;
+import authService.entity.RegistrationStatus;
+import authService.entity.Role;
+import authService.entity.RoleType;
+import authService.entity.User;
+import authService.exception.RoleNotFoundException;
+import authService.exception.UserRegistrationException;
+import authService.repository.RegistrationOutboxRepository;
+import authService.repository.RoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegistrationOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_COMPENSATION_ATTEMPTS = 10;
+
+    private final RegistrationOutboxRepository repository = mock(RegistrationOutboxRepository.class);
+    private final RoleCatalog roleCatalog = mock(RoleCatalog.class);
+    private final UserServiceRestClient userServiceClient = mock(UserServiceRestClient.class);
+    private final UserExistenceFilter userExistenceFilter = mock(UserExistenceFilter.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RegistrationOutboxDispatcher dispatcher = new RegistrationOutboxDispatcher(repository, mock(RoleRepository.class), roleCatalog,
+            userServiceClient, userExistenceFilter, mock(PlatformTransactionManager.class), 20, 60_000, MAX_ATTEMPTS, MAX_COMPENSATION_ATTEMPTS, 1000, 4000, 86_400_000, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "entityManager", entityManager);
+        when(roleCatalog.getRole(RoleType.ROLE_USER)).thenReturn(mock(Role.class));
+    }
+
+    @Test
+    void completesRegistrationAndKeepsItForPolling() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, 1);
+        when(userServiceClient.registerUserInUserService(any(), eq(registration.getIdempotencyKey()))).thenReturn(UserServiceUserRegistrationResponseDto.builder().id(42L).build());
+
+        dispatcher.dispatch();
+
+        verify(entityManager).persist(argThat(user -> user instanceof User created && created.getId() == 42L && created.getUsername().equals("user")));
+        verify(repository).markCompleted(registration.getId());
+        verify(repository, never()).deleteById(any());
+        verify(userExistenceFilter).add("user", "user@example.com");
+    }
+
+    @Test
+    void purgesCompletedEntriesAfterRetention() {
+        dispatcher.purgeCompleted();
+
+        verify(repository).deleteCompletedBefore(86_400);
+    }
+
+    @Test
+    void retriesTransientFailureWithExponentialBackoff() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, 2);
+        when(userServiceClient.registerUserInUserService(any(), eq(registration.getIdempotencyKey()))).thenThrow(new IOException("connection reset"));
+
+        dispatcher.dispatch();
+
+        verify(repository).scheduleRetry(registration.getId(), "connection reset", 2000);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void compensatesByIdempotencyKeyBeforeGivingUp() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, MAX_ATTEMPTS);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenThrow(new IOException("timeout"));
+
+        dispatcher.dispatch();
+
+        verify(userServiceClient).compensateUserServiceRegistrationIfFailed(null, registration.getIdempotencyKey());
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.FAILED);
+        assertThat(registration.getLastError()).isEqualTo("Gave up after 3 attempts: timeout");
+        assertThat(registration.getPassword()).isNull();
+        verify(repository, never()).scheduleRetry(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void keepsCompensatingWhenGivingUpAndUserServiceIsStillDown() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, MAX_ATTEMPTS);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenThrow(new IOException("timeout"));
+        doThrow(new IOException("unavailable")).when(userServiceClient).compensateUserServiceRegistrationIfFailed(null, registration.getIdempotencyKey());
+
+        dispatcher.dispatch();
+
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.COMPENSATING);
+        assertThat(registration.getAttempts()).isZero();
+        verify(repository).scheduleRetry(eq(registration.getId()), startsWith("Compensation failed"), eq(1000L));
+    }
+
+    @Test
+    void retriesUnexpectedLocalFailureWithinAttemptBudget() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, 1);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenReturn(UserServiceUserRegistrationResponseDto.builder().id(42L).build());
+        when(roleCatalog.getRole(RoleType.ROLE_USER)).thenThrow(new RoleNotFoundException("ROLE_USER"));
+
+        dispatcher.dispatch();
+
+        verify(repository).scheduleRetry(eq(registration.getId()), startsWith("Unexpected failure"), eq(1000L));
+    }
+
+    @Test
+    void compensatesPoisonEntryOnceAttemptsRunOut() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, MAX_ATTEMPTS);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenReturn(UserServiceUserRegistrationResponseDto.builder().id(42L).build());
+        when(roleCatalog.getRole(RoleType.ROLE_USER)).thenThrow(new RoleNotFoundException("ROLE_USER"));
+
+        dispatcher.dispatch();
+
+        verify(userServiceClient).compensateUserServiceRegistrationIfFailed(42L, registration.getIdempotencyKey());
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.FAILED);
+    }
+
+    @Test
+    void failsRegistrationRejectedByUserService() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, 1);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenThrow(new UserRegistrationException("email taken"));
+
+        dispatcher.dispatch();
+
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.FAILED);
+        verify(repository, never()).scheduleRetry(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void compensatesRemoteUserWhenLocalInsertFails() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.PENDING, 1);
+        when(userServiceClient.registerUserInUserService(any(), any())).thenReturn(UserServiceUserRegistrationResponseDto.builder().id(42L).build());
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(entityManager).persist(any());
+
+        dispatcher.dispatch();
+
+        verify(userServiceClient).compensateUserServiceRegistrationIfFailed(42L, registration.getIdempotencyKey());
+        assertThat(registration.getUserServiceId()).isEqualTo(42L);
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.FAILED);
+        verify(userExistenceFilter, never()).add(any(), any());
+    }
+
+    @Test
+    void retriesFailedCompensationWithCappedBackoff() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.COMPENSATING, MAX_ATTEMPTS + 5);
+        registration.setUserServiceId(42L);
+        doThrow(new IOException("unavailable")).when(userServiceClient).compensateUserServiceRegistrationIfFailed(42L, registration.getIdempotencyKey());
+
+        dispatcher.dispatch();
+
+        verify(repository).scheduleRetry(eq(registration.getId()), startsWith("Compensation failed"), eq(4000L));
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.COMPENSATING);
+    }
+
+    @Test
+    void deadLettersCompensationAfterItsAttemptBudget() throws Exception {
+        RegistrationOutbox registration = claim(RegistrationStatus.COMPENSATING, MAX_COMPENSATION_ATTEMPTS);
+        registration.setUserServiceId(42L);
+        doThrow(new IOException("unavailable")).when(userServiceClient).compensateUserServiceRegistrationIfFailed(42L, registration.getIdempotencyKey());
+
+        dispatcher.dispatch();
+
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.COMPENSATION_FAILED);
+        assertThat(registration.getPassword()).isNull();
+        verify(repository).save(registration);
+        verify(repository, never()).scheduleRetry(anyLong(), anyString(), anyLong());
+        assertThat(meterRegistry.get("registration.outbox").tag("outcome", "dead_lettered").counter().count()).isEqualTo(1);
+    }
+
+    private RegistrationOutbox claim(RegistrationStatus status, int attempts) {
+        RegistrationOutbox registration = new RegistrationOutbox("user", "user@example.com", "hash", RoleType.ROLE_USER, "Name", "Surname", null);
+        registration.setId(1L);
+        registration.setStatus(status);
+        registration.setAttempts(attempts);
+        when(repository.claimDue(20, 60)).thenReturn(List.of(registration));
+        return registration;
+    }
+}
@@ -0,0 +1,72 @@
+package authService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevocationListTest {
+
+    private static final LocalDateTime DATABASE_NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final DatabaseClock databaseClock = mock(DatabaseClock.class);
+    private final TestRevocationList revocationList = new TestRevocationList(databaseClock);
+
+    @Test
+    void keepsEachKeyUntilItsLatestExpiry() {
+        when(databaseClock.now()).thenReturn(DATABASE_NOW, DATABASE_NOW.plusSeconds(2));
+        revocationList.active.add(new Revocation("a", LocalDateTime.now().plusHours(1)));
+        revocationList.active.add(new Revocation("a", LocalDateTime.now().minusSeconds(1)));
+        revocationList.active.add(new Revocation("b", LocalDateTime.now().minusSeconds(1)));
+
+        revocationList.load();
+        revocationList.sync();
+
+        assertThat(revocationList.contains("a")).isTrue();
+        assertThat(revocationList.contains("b")).isFalse();
+        assertThat(revocationList.size()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotSyncBeforeTheFirstLoad() {
+        revocationList.recent.add(new Revocation("a", LocalDateTime.now().plusHours(1)));
+
+        revocationList.sync();
+
+        assertThat(revocationList.contains("a")).isFalse();
+        assertThat(revocationList.contains(null)).isFalse();
+    }
+
+    private record Revocation(String key, LocalDateTime expiresAt) {
+    }
+
+    private static final class TestRevocationList extends RevocationList<String, Revocation> {
+
+        private final List<Revocation> active = new ArrayList<>();
+        private final List<Revocation> recent = new ArrayList<>();
+
+        TestRevocationList(DatabaseClock databaseClock) {
+            super(databaseClock);
+        }
+
+        @Override
+        protected List<Revocation> findActive() {
+            return active;
+        }
+
+        @Override
+        protected List<Revocation> findActiveRevokedAfter(LocalDateTime since) {
+            return recent;
+        }
+
+        @Override
+        protected void apply(Revocation revocation) {
+            add(revocation.key(), revocation.expiresAt());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package authService.service;
+
+import authService.entity.Role;
+import authService.entity.RoleType;
+import authService.exception.RoleNotFoundException;
+import authService.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleCatalogTest {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final RoleCatalog roleCatalog = new RoleCatalog(roleRepository);
+
+    @Test
+    void servesRolesWithoutQueryingPerLookup() {
+        Role user = new Role(RoleType.ROLE_USER, "User");
+        when(roleRepository.findAll()).thenReturn(List.of(user));
+        roleCatalog.init();
+
+        assertThat(roleCatalog.getRole(RoleType.ROLE_USER)).isSameAs(user);
+        assertThat(roleCatalog.getRole(RoleType.ROLE_USER)).isSameAs(user);
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void rejectsRolesMissingFromTheTable() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(RoleType.ROLE_USER, "User")));
+        roleCatalog.init();
+
+        assertThatThrownBy(() -> roleCatalog.getRole(RoleType.ROLE_ADMIN)).isInstanceOf(RoleNotFoundException.class);
+    }
+
+    @Test
+    void keepsPreviousRolesWhenRefreshFails() {
+        Role user = new Role(RoleType.ROLE_USER, "User");
+        when(roleRepository.findAll()).thenReturn(List.of(user)).thenThrow(new IllegalStateException("database down"));
+        roleCatalog.init();
+
+        roleCatalog.refresh();
+
+        assertThat(roleCatalog.getRole(RoleType.ROLE_USER)).isSameAs(user);
+    }
+
+    @Test
+    void refreshPicksUpNewRoles() {
+        when(roleRepository.findAll())
+                .thenReturn(List.of(new Role(RoleType.ROLE_USER, "User")))
+                .thenReturn(List.of(new Role(RoleType.ROLE_USER, "User"), new Role(RoleType.ROLE_ADMIN, "Admin")));
+        roleCatalog.init();
+
+        roleCatalog.refresh();
+
+        assertThat(roleCatalog.getRoles()).containsOnlyKeys(RoleType.ROLE_USER, RoleType.ROLE_ADMIN);
+    }
+}
@@ -0,0 +1,79 @@
+package authService.service;
+
+import authService.exception.TokenValidationRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBatchValidatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenBatchValidator validator = new TokenBatchValidator(2, 100, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        validator.shutdown();
+    }
+
+    @Test
+    void returnsResultsInRequestOrder() {
+        List<String> tokens = IntStream.range(0, 50).mapToObj(i -> "token-" + i).toList();
+
+        List<String> results = validator.validateAll(tokens, token -> token.toUpperCase());
+
+        assertThat(results).containsExactlyElementsOf(tokens.stream().map(String::toUpperCase).toList());
+    }
+
+    @Test
+    void runsOnDedicatedPool() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<String> tokens = IntStream.range(0, 3).mapToObj(i -> "token-" + i).toList();
+
+        validator.validateAll(tokens, token -> {
+            threads.add(Thread.currentThread().getName());
+            return token;
+        });
+
+        assertThat(threads).allMatch(name -> name.startsWith("token-validation-"));
+    }
+
+    @Test
+    void rejectsBatchWhenSaturated() {
+        TokenBatchValidator saturated = new TokenBatchValidator(1, 1, meterRegistry);
+        List<String> tokens = IntStream.range(0, 20).mapToObj(i -> "token-" + i).toList();
+
+        try {
+            assertThatThrownBy(() -> saturated.validateAll(tokens, token -> {
+                sleep();
+                return token;
+            })).isInstanceOf(TokenValidationRejectedException.class);
+        } finally {
+            saturated.shutdown();
+        }
+        assertThat(meterRegistry.get("jwt.validation.batch.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsBatchAfterShutdownInsteadOfWaiting() {
+        validator.shutdown();
+
+        assertThatThrownBy(() -> validator.validateAll(List.of("a", "b"), token -> token))
+                .isInstanceOf(TokenValidationRejectedException.class);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package authService.service;
+
+import authService.dto.AuthResponse;
+import authService.entity.RefreshToken;
+import authService.entity.RoleType;
+import authService.entity.User;
+import authService.exception.RefreshTokenExpiredException;
+import authService.exception.RefreshTokenReuseDetectedException;
+import authService.repository.RefreshTokenRepository;
+import authService.repository.UserCredentials;
+import authService.repository.UserRepository;
+import authService.security.JwtUtil;
+import authService.security.OpaqueRefreshTokens;
+import authService.security.PrincipalCache;
+import authService.security.RefreshTokenCodec;
+import authService.security.RoleSet;
+import authService.security.SecurityUser;
+import authService.security.TokenDigest;
+import authService.security.TokenValidationCache;
+import authService.security.UserCredentialsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final long REFRESH_EXPIRATION_MS = 86_400_000;
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final RefreshTokenRevocationList refreshTokenRevocationList = mock(RefreshTokenRevocationList.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final LocalDateTime expiryDate = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    private final String refreshToken = OpaqueRefreshTokens.issue(expiryDate);
+
+    @Test
+    void rotatesTokenWithinItsFamilyInOneTransaction() throws Exception {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = storedToken();
+        when(refreshTokenRepository.revokeIfActive(stored.getId())).thenReturn(1);
+        UserCredentials credentials = credentials();
+        when(userRepository.findCredentialsById(1L)).thenReturn(Optional.of(credentials));
+        when(jwtUtil.generateAccessToken(any())).thenReturn("access");
+        when(jwtUtil.getRefreshExpirationMs()).thenReturn(REFRESH_EXPIRATION_MS);
+
+        AuthResponse response = tokenService.createNewAuthTokenWithRefreshToken(refreshToken);
+
+        LocalDateTime rotatedExpiry = OpaqueRefreshTokens.expiryDate(response.refreshToken());
+        assertThat(rotatedExpiry).isAfter(LocalDateTime.now());
+        verify(refreshTokenRepository).save(argThat(token -> token.getFamilyId().equals(stored.getFamilyId())
+                && Arrays.equals(token.getTokenHash(), TokenDigest.sha256(response.refreshToken()))
+                && token.getExpiryDate().equals(rotatedExpiry)));
+        verify(transactionManager).getTransaction(argThat(definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED));
+        verify(transactionManager, never()).getTransaction(argThat(definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void replayedTokenRevokesFamilyInItsOwnTransaction() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = storedToken();
+        // A token two or more rotations old is still in the table, revoked.
+        stored.setRevoked(true);
+
+        assertThatThrownBy(() -> tokenService.createNewAuthTokenWithRefreshToken(refreshToken))
+                .isInstanceOf(RefreshTokenReuseDetectedException.class);
+
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void losingConcurrentRotationCountsAsReuse() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = storedToken();
+        when(refreshTokenRepository.revokeIfActive(stored.getId())).thenReturn(0);
+
+        assertThatThrownBy(() -> tokenService.createNewAuthTokenWithRefreshToken(refreshToken))
+                .isInstanceOf(RefreshTokenReuseDetectedException.class);
+
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndLeftForThePurger() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = storedToken();
+        stored.setExpiryDate(LocalDateTime.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> tokenService.createNewAuthTokenWithRefreshToken(refreshToken))
+                .isInstanceOf(RefreshTokenExpiredException.class);
+
+        verify(refreshTokenRepository, never()).delete(any());
+        verify(refreshTokenRepository, never()).revokeIfActive(any());
+    }
+
+    @Test
+    void issuesTokenCarryingItsStoredExpiry() throws Exception {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        when(jwtUtil.getRefreshExpirationMs()).thenReturn(REFRESH_EXPIRATION_MS);
+
+        AuthResponse response = tokenService.createAuthenticationToken(new SecurityUser(1L, "user", "hash", true, RoleSet.of(RoleType.ROLE_USER)));
+
+        verify(refreshTokenRepository).save(argThat(token -> Arrays.equals(token.getTokenHash(), TokenDigest.sha256(response.refreshToken()))
+                && token.getExpiryDate().equals(OpaqueRefreshTokens.expiryDate(response.refreshToken()))));
+    }
+
+    @Test
+    void logoutRevokesFamilyOfStoredToken() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = storedToken();
+
+        tokenService.revokeRefreshToken(refreshToken);
+
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+        verify(refreshTokenRepository, never()).findByTokenHash(any());
+    }
+
+    @Test
+    void tokenWithoutEmbeddedExpiryIsLookedUpByHashAlone() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        RefreshToken stored = new RefreshToken(TokenDigest.sha256("legacy"), null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+
+        tokenService.revokeRefreshToken("legacy");
+
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void logoutIgnoresUnknownToken() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_OPAQUE, ""));
+        tokenService.revokeRefreshToken(refreshToken);
+
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    void logoutRevokesFamilyOfStatelessToken() {
+        RefreshTokenCodec codec = new RefreshTokenCodec(RefreshTokenCodec.MODE_STATELESS, SECRET);
+        TokenService tokenService = tokenService(codec);
+        UUID familyId = UUID.randomUUID();
+        String token = codec.issue(new SecurityUser(1L, "user", "hash", true, RoleSet.of(RoleType.ROLE_USER)), familyId, Instant.now().plusSeconds(3600));
+
+        tokenService.revokeRefreshToken(token);
+        tokenService.revokeRefreshToken("not-a-token");
+
+        verify(refreshTokenRevocationList).revokeFamily(eq(familyId), any());
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void credentialChangeRevokesEveryStatelessTokenOfUser() {
+        TokenService tokenService = tokenService(new RefreshTokenCodec(RefreshTokenCodec.MODE_STATELESS, SECRET));
+        when(jwtUtil.getRefreshExpirationMs()).thenReturn(REFRESH_EXPIRATION_MS);
+
+        tokenService.revokeUserRefreshTokens(new UserCredentialsChangedEvent(1L));
+
+        verify(refreshTokenRepository).deleteByUserId(1L);
+        verify(refreshTokenRevocationList).revokeUser(eq(1L), any());
+    }
+
+    private RefreshToken storedToken() {
+        User user = new User("user", "hash", "user@example.com");
+        user.setId(1L);
+        RefreshToken stored = new RefreshToken(TokenDigest.sha256(refreshToken), user, expiryDate);
+        stored.setId(10L);
+        when(refreshTokenRepository.findByTokenHashAndExpiryDate(argThat(hash -> Arrays.equals(hash, TokenDigest.sha256(refreshToken))), eq(expiryDate)))
+                .thenReturn(Optional.of(stored));
+        return stored;
+    }
+
+    private static UserCredentials credentials() {
+        UserCredentials credentials = mock(UserCredentials.class);
+        when(credentials.getId()).thenReturn(1L);
+        when(credentials.getUsername()).thenReturn("user");
+        when(credentials.getPassword()).thenReturn("hash");
+        when(credentials.getRoles()).thenReturn("ROLE_USER");
+        return credentials;
+    }
+
+    private TokenService tokenService(RefreshTokenCodec codec) {
+        return new TokenService(refreshTokenRepository, jwtUtil, userRepository, mock(TokenValidationCache.class), codec,
+                refreshTokenRevocationList, mock(PrincipalCache.class), mock(RefreshTokenPurger.class), mock(AccessTokenRevocationList.class),
+                mock(TokenBatchValidator.class), transactionManager, 100);
+    }
+}
@@ -0,0 +1,81 @@
+package authService.service;
+
+import authService.repository.UserIdentity;
+import authService.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserExistenceFilterTest {
+
+    private static final LocalDateTime REBUILD_STARTED = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final LocalDateTime SYNC_STARTED = REBUILD_STARTED.plusSeconds(5);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final DatabaseClock databaseClock = mock(DatabaseClock.class);
+
+    @Test
+    void reportsEverythingAsPossiblyPresentWhenDisabled() {
+        UserExistenceFilter filter = filter(false);
+
+        filter.warmUp();
+
+        assertThat(filter.mightContainUsername("anyone")).isTrue();
+        assertThat(filter.mightContainEmail("anyone@example.com")).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void answersFromTheLoadedUsersOnceWarm() {
+        UserIdentity alice = identity("alice", "alice@example.com", REBUILD_STARTED);
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(alice));
+        UserExistenceFilter filter = filter(true);
+        assertThat(filter.mightContainUsername("bob")).isTrue();
+
+        filter.warmUp();
+        filter.add("carol", "carol@example.com");
+
+        assertThat(filter.mightContainUsername("alice")).isTrue();
+        assertThat(filter.mightContainEmail("alice@example.com")).isTrue();
+        assertThat(filter.mightContainUsername("carol")).isTrue();
+        assertThat(filter.mightContainUsername("bob")).isFalse();
+    }
+
+    @Test
+    void advancesSyncWatermarkFromTheDatabaseClock() {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.empty());
+        // Written by a node whose clock runs an hour ahead.
+        UserIdentity bob = identity("bob", "bob@example.com", REBUILD_STARTED.plusHours(1));
+        when(userRepository.findIdentitiesCreatedAfter(REBUILD_STARTED.minusMinutes(1))).thenReturn(List.of(bob));
+        UserExistenceFilter filter = filter(true);
+
+        filter.warmUp();
+        filter.syncRecentUsers();
+        filter.syncRecentUsers();
+
+        assertThat(filter.mightContainUsername("bob")).isTrue();
+        verify(userRepository).findIdentitiesCreatedAfter(SYNC_STARTED.minusMinutes(1));
+    }
+
+    private UserExistenceFilter filter(boolean enabled) {
+        when(databaseClock.now()).thenReturn(REBUILD_STARTED, SYNC_STARTED);
+        return new UserExistenceFilter(userRepository, databaseClock, mock(PlatformTransactionManager.class), enabled, 1000, 0.01);
+    }
+
+    private static UserIdentity identity(String username, String email, LocalDateTime createdAt) {
+        UserIdentity identity = mock(UserIdentity.class);
+        when(identity.getUsername()).thenReturn(username);
+        when(identity.getEmail()).thenReturn(email);
+        when(identity.getCreatedAt()).thenReturn(createdAt);
+        return identity;
+    }
+}
@@ -0,0 +1,77 @@
+package authService.service;
+
+import authService.exception.UserRegistrationException;
+import authService.security.ServiceTokenHolder;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceRestClientTest {
+
+    private static final UUID KEY = UUID.fromString("7d3f1c2a-4b5e-4f60-8a71-9b8c7d6e5f40");
+
+    private final AtomicInteger status = new AtomicInteger();
+    private final AtomicReference<String> request = new AtomicReference<>();
+    private HttpServer server;
+    private UserServiceRestClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/users", exchange -> {
+            String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            request.set(exchange.getRequestMethod() + " " + exchange.getRequestURI() + (idempotencyKey == null ? "" : " " + idempotencyKey));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        ServiceTokenHolder serviceTokenHolder = mock(ServiceTokenHolder.class);
+        when(serviceTokenHolder.getToken()).thenReturn("service-token");
+        client = new UserServiceRestClient("http://127.0.0.1:" + server.getAddress().getPort(), new SimpleClientHttpRequestFactory(), serviceTokenHolder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {204, 404, 410})
+    void treatsDeletedOrMissingUserAsCompensated(int responseStatus) {
+        status.set(responseStatus);
+
+        assertThatCode(() -> client.compensateUserServiceRegistrationIfFailed(42L, KEY)).doesNotThrowAnyException();
+        assertThat(request.get()).isEqualTo("DELETE /api/v1/users/42");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {409, 500, 503})
+    void failsCompensationOnOtherErrors(int responseStatus) {
+        status.set(responseStatus);
+
+        assertThatThrownBy(() -> client.compensateUserServiceRegistrationIfFailed(42L, KEY)).isInstanceOf(UserRegistrationException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {204, 404})
+    void compensatesByIdempotencyKeyWhenUserIdIsUnknown(int responseStatus) {
+        status.set(responseStatus);
+
+        assertThatCode(() -> client.compensateUserServiceRegistrationIfFailed(null, KEY)).doesNotThrowAnyException();
+        assertThat(request.get()).isEqualTo("DELETE /api/v1/users " + KEY);
+    }
+}
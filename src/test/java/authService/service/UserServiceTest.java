@@ -0,0 +1,82 @@
+package authService.service;
+
+import authService.dto.RegistrationStatusResponse;
+import authService.dto.UserRegistrationRequestDto;
+import authService.entity.RegistrationOutbox;
+import authService.entity.RegistrationStatus;
+import authService.entity.RoleType;
+import authService.exception.RegistrationNotFoundException;
+import authService.repository.RegistrationOutboxRepository;
+import authService.repository.UserRepository;
+import authService.security.PrincipalCache;
+import authService.security.RoleSet;
+import authService.security.SecurityUser;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private final RegistrationOutboxRepository registrationOutboxRepository = mock(RegistrationOutboxRepository.class);
+    private final UserExistenceFilter userExistenceFilter = mock(UserExistenceFilter.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+    private final UserService userService = new UserService(userRepository, passwordEncoder, registrationOutboxRepository,
+            userExistenceFilter, principalCache, mock(RoleCatalog.class), mock(LastLoginRecorder.class));
+
+    @Test
+    void registrationReturnsIdOfPendingOutboxEntry() {
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+
+        RegistrationStatusResponse response = userService.createUser(
+                new UserRegistrationRequestDto("user", "user@example.com", "secret", "Name", "Surname", null), RoleType.ROLE_USER);
+
+        ArgumentCaptor<RegistrationOutbox> saved = ArgumentCaptor.forClass(RegistrationOutbox.class);
+        verify(registrationOutboxRepository).save(saved.capture());
+        assertThat(response.registrationId()).isEqualTo(saved.getValue().getIdempotencyKey());
+        assertThat(response.status()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(saved.getValue().getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void reportsRegistrationStatusById() {
+        RegistrationOutbox registration = new RegistrationOutbox("user", "user@example.com", null, RoleType.ROLE_USER, "Name", "Surname", null);
+        registration.setStatus(RegistrationStatus.COMPLETED);
+        when(registrationOutboxRepository.findByIdempotencyKey(registration.getIdempotencyKey())).thenReturn(Optional.of(registration));
+
+        assertThat(userService.getRegistrationStatus(registration.getIdempotencyKey()))
+                .isEqualTo(new RegistrationStatusResponse(registration.getIdempotencyKey(), RegistrationStatus.COMPLETED));
+    }
+
+    @Test
+    void unknownRegistrationIsNotFound() {
+        UUID registrationId = UUID.randomUUID();
+        when(registrationOutboxRepository.findByIdempotencyKey(registrationId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getRegistrationStatus(registrationId))
+                .isInstanceOf(RegistrationNotFoundException.class);
+    }
+
+    @Test
+    void rehashStoresNewHashAndRefreshesCachedPrincipal() {
+        SecurityUser principal = new SecurityUser(1L, "alice", "{bcrypt}old", true, RoleSet.of(RoleType.ROLE_USER));
+
+        UserDetails updated = userService.updatePassword(principal, "{bcrypt}new");
+
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}new");
+        assertThat(updated.getAuthorities()).isEqualTo(principal.getAuthorities());
+        verify(userRepository).updatePasswordByUsername("alice", "{bcrypt}new");
+        verify(principalCache).put((SecurityUser) updated);
+    }
+}